@@ -0,0 +1,158 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the PharmaId API, for load tests. Serves the three endpoints EmergencyAid
+ * calls with configurable latency and error injection. Run it as a single-file program:
+ *
+ * <pre>
+ *   java loadtest/PharmaidStub.java port=8089 latency-ms=40 jitter-ms=20 error-rate=0.01 count=5
+ * </pre>
+ *
+ * <p>Every option can be set per endpoint by suffixing the endpoint name, eg
+ * {@code latency-ms.prescriptions=150} or {@code error-rate.requests=0.05}. Endpoints are
+ * "login", "requests" and "prescriptions"; {@code count} is the number of prescriptions returned.
+ */
+public final class PharmaidStub {
+
+  private static final Pattern USER_PATH =
+      Pattern.compile("^/users/([^/]+)/(requests|prescriptions)$");
+
+  private final Map<String, String> options;
+  private final String prescriptionsBody;
+
+  private PharmaidStub(Map<String, String> options) {
+    this.options = options;
+    this.prescriptionsBody = prescriptionsJson(intOption("prescriptions", "count", 5));
+  }
+
+  /**
+   * Starts the stub.
+   *
+   * @param args key=value options
+   * @throws IOException if the port cannot be bound
+   */
+  public static void main(String[] args) throws IOException {
+    final Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      final String[] pair = arg.split("=", 2);
+      if (pair.length != 2) {
+        throw new IllegalArgumentException("Expected key=value, got: " + arg);
+      }
+      options.put(pair[0], pair[1]);
+    }
+
+    final PharmaidStub stub = new PharmaidStub(options);
+    final int port = stub.intOption("", "port", 8089);
+    final HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+    server.createContext("/", stub::handle);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    System.out.printf("PharmaId stub listening on http://localhost:%d with %s%n", port, options);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      final String method = exchange.getRequestMethod();
+      final String path = exchange.getRequestURI().getPath();
+      exchange.getRequestBody().readAllBytes();
+
+      if ("POST".equals(method) && "/login".equals(path)) {
+        respond(exchange, "login", 200, "{\"token\": \"stub-token\"}");
+        return;
+      }
+
+      final Matcher matcher = USER_PATH.matcher(path);
+      if (matcher.matches()) {
+        final String endpoint = matcher.group(2);
+        if ("requests".equals(endpoint) && "POST".equals(method)) {
+          respond(exchange, endpoint, 201, "{\"id\": \"" + UUID.randomUUID()
+              + "\", \"sharePermissionType\": \"VIEW\", \"status\": \"ACCEPTED\"}");
+          return;
+        }
+        if ("prescriptions".equals(endpoint) && "GET".equals(method)) {
+          respond(exchange, endpoint, 200, prescriptionsBody);
+          return;
+        }
+      }
+      send(exchange, 404, "{\"error\": \"Not found\"}");
+    }
+  }
+
+  private void respond(HttpExchange exchange, String endpoint, int status, String body)
+      throws IOException {
+    sleep(intOption(endpoint, "latency-ms", 0), intOption(endpoint, "jitter-ms", 0));
+
+    final double errorRate = doubleOption(endpoint, "error-rate", 0);
+    if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+      send(exchange, 500, "{\"error\": \"Injected failure\"}");
+      return;
+    }
+    send(exchange, status, body);
+  }
+
+  private static void send(HttpExchange exchange, int status, String body) throws IOException {
+    final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static void sleep(int latencyMs, int jitterMs) {
+    final int jitter = jitterMs > 0 ? ThreadLocalRandom.current().nextInt(jitterMs) : 0;
+    final int delay = latencyMs + jitter;
+    if (delay <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(delay);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private String option(String endpoint, String name) {
+    return options.getOrDefault(name + "." + endpoint, options.get(name));
+  }
+
+  private int intOption(String endpoint, String name, int defaultValue) {
+    final String value = option(endpoint, name);
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+
+  private double doubleOption(String endpoint, String name, double defaultValue) {
+    final String value = option(endpoint, name);
+    return value == null ? defaultValue : Double.parseDouble(value);
+  }
+
+  private static String prescriptionsJson(int count) {
+    final StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append("{\"id\": \"").append(UUID.randomUUID())
+          .append("\", \"medication\": {\"id\": \"").append(UUID.randomUUID())
+          .append("\", \"medicationName\": \"Medication ").append(i)
+          .append("\"}, \"dosage\": ").append(100 + i)
+          .append(", \"numOfDoses\": ").append(30)
+          .append(", \"startDate\": \"2024-10-01\", \"endDate\": \"2024-11-01\"")
+          .append(", \"isActive\": ").append(i % 2 == 0)
+          .append('}');
+    }
+    return json.append(']').toString();
+  }
+}
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Runs the load test end to end: PharmaId stub, EmergencyAid on the loadtest config, k6 workload.
+#   loadtest/run.sh                      # H2, stub defaults
+#   PROFILES=loadtest,localpg STUB_ARGS="latency-ms=80 error-rate=0.02" RATE=100 loadtest/run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PROFILES="${PROFILES:-loadtest}"
+STUB_ARGS="${STUB_ARGS:-latency-ms=40 jitter-ms=20}"
+APP_URL="http://localhost:8080"
+JAR="target/emergencyaid-0.0.1-SNAPSHOT.jar"
+
+if [[ ! -f "$JAR" ]]; then
+  ./mvnw -B -q package -DskipTests
+fi
+
+cleanup() {
+  [[ -n "${APP_PID:-}" ]] && kill "$APP_PID" 2>/dev/null || true
+  [[ -n "${STUB_PID:-}" ]] && kill "$STUB_PID" 2>/dev/null || true
+}
+trap cleanup EXIT
+
+# shellcheck disable=SC2086
+java loadtest/PharmaidStub.java port=8089 $STUB_ARGS &
+STUB_PID=$!
+
+java -jar "$JAR" --spring.config.location=file:loadtest/config/ \
+  --spring.profiles.active="$PROFILES" > target/loadtest-app.log 2>&1 &
+APP_PID=$!
+
+# the seeder creates the load test user last, so a successful login means seeding is done
+echo "Waiting for EmergencyAid to start and seed data..."
+for _ in $(seq 1 300); do
+  if LOGIN=$(curl -sf -X POST -H "Content-Type: application/json" \
+      -d '{"email": "loadtest@example.com", "password": "loadtest-password"}' \
+      "$APP_URL/login"); then
+    break
+  fi
+  sleep 1
+done
+# /actuator/prometheus requires authentication
+TOKEN=$(sed -n 's/.*"token":"\([^"]*\)".*/\1/p' <<< "${LOGIN:-}")
+
+k6 run -e BASE_URL="$APP_URL" --summary-export=target/loadtest-summary.json loadtest/workload.js
+curl -s -H "Authorization: Bearer $TOKEN" "$APP_URL/actuator/prometheus" > target/loadtest-metrics.txt
+echo "Summary: target/loadtest-summary.json, server metrics: target/loadtest-metrics.txt"
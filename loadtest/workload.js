@@ -0,0 +1,120 @@
+// EmergencyAid load test workload for k6 (https://k6.io):
+//   k6 run -e BASE_URL=http://localhost:8080 loadtest/workload.js
+// Mix: 10% login, 50% search, 10% patient registration, 30% prescription view. The end-of-test
+// summary reports throughput (http_reqs) and latency percentiles per operation.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const EMAIL = __ENV.LOADTEST_EMAIL || 'loadtest@example.com';
+const PASSWORD = __ENV.LOADTEST_PASSWORD || 'loadtest-password';
+
+const MIX = [
+  { name: 'login', weight: 10 },
+  { name: 'search', weight: 50 },
+  { name: 'register', weight: 10 },
+  { name: 'prescriptions', weight: 30 },
+];
+
+const SEARCH_NAMES = ['Smith', 'Johnson', 'Mary', 'Robert', 'Garcia', 'Linda Brown'];
+
+export const options = {
+  scenarios: {
+    mixed: {
+      executor: 'constant-arrival-rate',
+      rate: Number(__ENV.RATE || 50),
+      timeUnit: '1s',
+      duration: __ENV.DURATION || '2m',
+      preAllocatedVUs: Number(__ENV.VUS || 50),
+      maxVUs: Number(__ENV.MAX_VUS || 200),
+    },
+  },
+  summaryTrendStats: ['avg', 'min', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    // one sub-metric per operation so the summary breaks latency down by operation
+    'http_req_duration{op:login}': ['p(99)>=0'],
+    'http_req_duration{op:search}': ['p(99)>=0'],
+    'http_req_duration{op:register}': ['p(99)>=0'],
+    'http_req_duration{op:prescriptions}': ['p(99)>=0'],
+  },
+};
+
+function login() {
+  return http.post(`${BASE_URL}/login`, JSON.stringify({ email: EMAIL, password: PASSWORD }), {
+    headers: { 'Content-Type': 'application/json' },
+    tags: { op: 'login' },
+  });
+}
+
+export function setup() {
+  const res = login();
+  check(res, { 'setup login succeeded': (r) => r.status === 200 });
+  const token = res.json('token');
+
+  const patients = http.get(`${BASE_URL}/patients`, {
+    headers: { Authorization: `Bearer ${token}` },
+    tags: { op: 'setup' },
+  }).json();
+  return {
+    token,
+    patientIds: patients.filter((p) => p.pharmaId).map((p) => p.id),
+    phoneNumbers: patients.slice(0, 1000).map((p) => p.phoneNumber),
+  };
+}
+
+function pick(items) {
+  return items[Math.floor(Math.random() * items.length)];
+}
+
+function pickOperation() {
+  let roll = Math.random() * MIX.reduce((sum, op) => sum + op.weight, 0);
+  for (const op of MIX) {
+    roll -= op.weight;
+    if (roll < 0) {
+      return op.name;
+    }
+  }
+  return MIX[MIX.length - 1].name;
+}
+
+export default function (data) {
+  const auth = { Authorization: `Bearer ${data.token}` };
+
+  switch (pickOperation()) {
+    case 'login': {
+      check(login(), { 'login 200': (r) => r.status === 200 });
+      break;
+    }
+    case 'search': {
+      const q = Math.random() < 0.3 ? pick(data.phoneNumbers) : pick(SEARCH_NAMES);
+      const res = http.get(`${BASE_URL}/patients/search?q=${encodeURIComponent(q)}`, {
+        headers: auth,
+        tags: { op: 'search' },
+      });
+      check(res, { 'search 200': (r) => r.status === 200 });
+      break;
+    }
+    case 'register': {
+      const digits = String(Math.floor(Math.random() * 1e9)).padStart(9, '0');
+      const body = {
+        firstName: 'Load',
+        lastName: `Test${__VU}`,
+        phoneNumber: `9${digits.slice(0, 2)}-${digits.slice(2, 5)}-${digits.slice(5, 9)}`,
+      };
+      const res = http.post(`${BASE_URL}/patients/new`, JSON.stringify(body), {
+        headers: { 'Content-Type': 'application/json' },
+        tags: { op: 'register' },
+      });
+      // 409 is an expected phone collision, not a failure of the service
+      check(res, { 'register 201/409': (r) => r.status === 201 || r.status === 409 });
+      break;
+    }
+    default: {
+      const res = http.get(`${BASE_URL}/patients/${pick(data.patientIds)}/pharmaid/view`, {
+        headers: auth,
+        tags: { op: 'prescriptions' },
+      });
+      check(res, { 'prescriptions 200': (r) => r.status === 200 });
+    }
+  }
+}
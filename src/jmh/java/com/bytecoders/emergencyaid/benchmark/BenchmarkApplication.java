@@ -0,0 +1,40 @@
+package com.bytecoders.emergencyaid.benchmark;
+
+import com.bytecoders.emergencyaid.repository.PatientRepository;
+import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.service.PatientService;
+import com.bytecoders.emergencyaid.service.PharmaidAuthService;
+import com.bytecoders.emergencyaid.service.PrescriptionCache;
+import com.bytecoders.emergencyaid.service.PrescriptionJson;
+import com.bytecoders.emergencyaid.util.QueryValidator;
+import com.bytecoders.emergencyaid.util.ServiceUtils;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Minimal Spring context for the persistence benchmarks: the patient service and repositories
+ * on an embedded H2 database, configured by {@code benchmark.properties}. PharmaId login is not
+ * run.
+ */
+@Configuration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Patient.class)
+@EnableJpaRepositories(basePackageClasses = PatientRepository.class)
+@Import({PatientService.class, PharmaidAuthService.class, PrescriptionCache.class,
+    PrescriptionJson.class, QueryValidator.class, ServiceUtils.class})
+public class BenchmarkApplication {
+
+  // Passed as a command-line argument so the regular application.properties, and its
+  // Secret Manager lookups, are never loaded.
+  public static final String CONFIG_NAME_ARG = "--spring.config.name=benchmark";
+
+  @Bean
+  public RestTemplate restTemplate() {
+    return new RestTemplate();
+  }
+}
@@ -0,0 +1,62 @@
+package com.bytecoders.emergencyaid.benchmark;
+
+import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Shared, deterministic fixtures for the JMH benchmarks. */
+public final class BenchmarkFixtures {
+
+  // 256-bit HS256 key; the value is arbitrary but fixed so runs are comparable
+  public static final String JWT_SECRET_KEY =
+      Base64.getEncoder().encodeToString("emergencyaid-benchmark-hs256-key".getBytes());
+
+  public static final long JWT_EXPIRATION_MS = 3_600_000L;
+
+  private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert",
+      "Jennifer", "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard",
+      "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen"};
+
+  private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones",
+      "Garcia", "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez",
+      "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"};
+
+  private BenchmarkFixtures() {
+  }
+
+  /**
+   * Creates a JwtUtils configured the way Spring would inject it.
+   *
+   * @return a ready-to-use JwtUtils
+   */
+  public static JwtUtils jwtUtils() {
+    final JwtUtils jwtUtils = new JwtUtils();
+    ReflectionTestUtils.setField(jwtUtils, "secretKey", JWT_SECRET_KEY);
+    ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", JWT_EXPIRATION_MS);
+    return jwtUtils;
+  }
+
+  /**
+   * Builds unsaved patients with unique phone numbers and names drawn from a small pool, so
+   * name searches match many rows as they would in production.
+   *
+   * @param count number of patients to build
+   * @return the patients, in a fixed order for a given count
+   */
+  public static List<Patient> patients(int count) {
+    final Random random = new Random(42);
+    final List<Patient> patients = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final Patient patient = new Patient();
+      patient.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+      patient.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+      patient.setPhoneNumber(String.format("555-%03d-%04d", i / 10_000, i % 10_000));
+      patients.add(patient);
+    }
+    return patients;
+  }
+}
@@ -0,0 +1,145 @@
+package com.bytecoders.emergencyaid.benchmark;
+
+import com.bytecoders.emergencyaid.openapi.model.Medication;
+import com.bytecoders.emergencyaid.openapi.model.Prescription;
+import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.bytecoders.emergencyaid.util.UuidV7;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks encoding and decoding a {@code GET /patients} response of {@code patientCount}
+ * patients and a prescriptions response of {@code prescriptionCount} prescriptions in each
+ * encoding the API negotiates: JSON, CBOR and Smile. The encoded and gzip sizes, ie the bytes on
+ * the wire, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+  @Param({"10000"})
+  private int patientCount;
+
+  @Param({"50"})
+  private int prescriptionCount;
+
+  @Param({"json", "cbor", "smile"})
+  private String format;
+
+  private ObjectWriter patientWriter;
+  private ObjectReader patientReader;
+  private ObjectWriter prescriptionWriter;
+  private ObjectReader prescriptionReader;
+  private List<PatientSummary> patients;
+  private List<Prescription> prescriptions;
+  private byte[] encodedPatients;
+  private byte[] encodedPrescriptions;
+
+  /** Builds the response bodies and a mapper configured like Spring Boot's for the format. */
+  @Setup
+  public void setup() throws IOException {
+    final Jackson2ObjectMapperBuilder builder = switch (format) {
+      case "json" -> Jackson2ObjectMapperBuilder.json();
+      case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+      case "smile" -> Jackson2ObjectMapperBuilder.smile();
+      default -> throw new IllegalArgumentException("Unknown format: " + format);
+    };
+    final ObjectMapper objectMapper = builder.modulesToInstall(new BlackbirdModule()).build();
+    final TypeReference<List<PatientSummary>> patientList = new TypeReference<>() { };
+    final TypeReference<List<Prescription>> prescriptionList = new TypeReference<>() { };
+    patientWriter = objectMapper.writerFor(patientList);
+    patientReader = objectMapper.readerFor(patientList);
+    prescriptionWriter = objectMapper.writerFor(prescriptionList);
+    prescriptionReader = objectMapper.readerFor(prescriptionList);
+
+    final List<Patient> fixtures = BenchmarkFixtures.patients(patientCount);
+    patients = fixtures.stream()
+        .map(p -> new PatientSummary(UuidV7.generate(), p.getFirstName(), p.getLastName(),
+            p.getPhoneNumber(), null, 0L))
+        .toList();
+    prescriptions = prescriptions(prescriptionCount);
+
+    encodedPatients = encodePatients();
+    encodedPrescriptions = encodePrescriptions();
+    System.out.printf("%n%s: %d patients %d bytes, %d gzip; %d prescriptions %d bytes, %d gzip%n",
+        format, patientCount, encodedPatients.length, gzip(encodedPatients).length,
+        prescriptionCount, encodedPrescriptions.length, gzip(encodedPrescriptions).length);
+  }
+
+  @Benchmark
+  public byte[] encodePatients() throws IOException {
+    return patientWriter.writeValueAsBytes(patients);
+  }
+
+  @Benchmark
+  public List<PatientSummary> decodePatients() throws IOException {
+    return patientReader.readValue(encodedPatients);
+  }
+
+  @Benchmark
+  public byte[] encodePrescriptions() throws IOException {
+    return prescriptionWriter.writeValueAsBytes(prescriptions);
+  }
+
+  @Benchmark
+  public List<Prescription> decodePrescriptions() throws IOException {
+    return prescriptionReader.readValue(encodedPrescriptions);
+  }
+
+  private static List<Prescription> prescriptions(int count) {
+    final Random random = new Random(42);
+    final List<Prescription> prescriptions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final Medication medication = new Medication();
+      medication.setId(new UUID(random.nextLong(), random.nextLong()));
+      medication.setMedicationName("Medication " + random.nextInt(500));
+
+      final Prescription prescription = new Prescription();
+      prescription.setId(new UUID(random.nextLong(), random.nextLong()));
+      prescription.setMedication(medication);
+      prescription.setDosage(random.nextInt(1000));
+      prescription.setNumOfDoses(random.nextInt(60));
+      prescription.setStartDate("2024-10-28");
+      prescription.setEndDate("2024-11-28");
+      prescription.setIsActive(random.nextBoolean());
+      prescriptions.add(prescription);
+    }
+    return prescriptions;
+  }
+
+  private static byte[] gzip(byte[] content) throws IOException {
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(body)) {
+      gzip.write(content);
+    }
+    return body.toByteArray();
+  }
+}
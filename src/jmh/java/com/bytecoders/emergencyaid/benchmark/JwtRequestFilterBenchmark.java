@@ -0,0 +1,77 @@
+package com.bytecoders.emergencyaid.benchmark;
+
+import com.bytecoders.emergencyaid.security.JwtRequestFilter;
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** End-to-end benchmarks for {@link JwtRequestFilter} on authenticated and public requests. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+  private JwtRequestFilter filter;
+  private String authorizationHeader;
+
+  /** Wires the filter the way Spring would and issues a valid token. */
+  @Setup
+  public void setup() {
+    final JwtUtils jwtUtils = BenchmarkFixtures.jwtUtils();
+    filter = new JwtRequestFilter();
+    ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+    ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+    authorizationHeader = "Bearer " + jwtUtils.generateToken(UUID.randomUUID().toString());
+  }
+
+  /**
+   * A protected request carrying a valid bearer token.
+   *
+   * @return the authentication set up by the filter
+   * @throws Exception if the filter fails
+   */
+  @Benchmark
+  public Authentication authenticatedRequest() throws Exception {
+    final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/patients");
+    request.addHeader("Authorization", authorizationHeader);
+    try {
+      filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+      return SecurityContextHolder.getContext().getAuthentication();
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  /**
+   * A public endpoint, which skips JWT validation.
+   *
+   * @return the request after filtering
+   * @throws Exception if the filter fails
+   */
+  @Benchmark
+  public MockHttpServletRequest publicRequest() throws Exception {
+    final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    return request;
+  }
+}
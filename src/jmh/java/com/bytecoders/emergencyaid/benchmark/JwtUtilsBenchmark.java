@@ -0,0 +1,52 @@
+package com.bytecoders.emergencyaid.benchmark;
+
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link JwtUtils} token generation and verification. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+  private JwtUtils jwtUtils;
+  private String userId;
+  private String token;
+
+  /** Creates a JwtUtils and a valid token to verify. */
+  @Setup
+  public void setup() {
+    jwtUtils = BenchmarkFixtures.jwtUtils();
+    userId = UUID.randomUUID().toString();
+    token = jwtUtils.generateToken(userId);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtUtils.generateToken(userId);
+  }
+
+  @Benchmark
+  public String extractUserId() {
+    return jwtUtils.extractUserId(token);
+  }
+
+  @Benchmark
+  public boolean isTokenValid() {
+    return jwtUtils.isTokenValid(token, userId);
+  }
+}
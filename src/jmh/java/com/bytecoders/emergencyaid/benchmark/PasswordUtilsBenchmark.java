@@ -0,0 +1,51 @@
+package com.bytecoders.emergencyaid.benchmark;
+
+import com.bytecoders.emergencyaid.util.PasswordUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link PasswordUtils} BCrypt hashing and verification at several costs. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordUtilsBenchmark {
+
+  private static final String PASSWORD = "securePassword123*";
+
+  @Param({"4", "8", "10", "12"})
+  private int logRounds;
+
+  private PasswordUtils passwordUtils;
+  private String hashedPassword;
+
+  /** Creates PasswordUtils at the benchmarked cost and a hash to verify against. */
+  @Setup
+  public void setup() {
+    passwordUtils = new PasswordUtils(new SimpleMeterRegistry(), logRounds);
+    hashedPassword = passwordUtils.hashPassword(PASSWORD);
+  }
+
+  @Benchmark
+  public String hashPassword() {
+    return passwordUtils.hashPassword(PASSWORD);
+  }
+
+  @Benchmark
+  public boolean verifyPassword() {
+    return passwordUtils.verifyPassword(PASSWORD, hashedPassword);
+  }
+}
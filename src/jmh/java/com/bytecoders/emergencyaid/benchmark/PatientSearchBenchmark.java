@@ -0,0 +1,77 @@
+package com.bytecoders.emergencyaid.benchmark;
+
+import com.bytecoders.emergencyaid.repository.PatientRepository;
+import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.bytecoders.emergencyaid.service.PatientService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmarks {@link PatientService#searchPatients(String)} for each query type against an
+ * embedded H2 database seeded with {@code patientCount} patients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientSearchBenchmark {
+
+  @Param({"1000", "10000"})
+  private int patientCount;
+
+  @Param({"uuid", "phone", "name", "full_name"})
+  private String queryType;
+
+  private ConfigurableApplicationContext context;
+  private PatientService patientService;
+  private String query;
+
+  /** Starts the Spring context, seeds the database and picks a query that matches. */
+  @Setup(Level.Trial)
+  public void setup() {
+    context = new SpringApplicationBuilder(BenchmarkApplication.class)
+        .web(WebApplicationType.NONE)
+        .run(BenchmarkApplication.CONFIG_NAME_ARG);
+    patientService = context.getBean(PatientService.class);
+
+    final List<Patient> patients = context.getBean(PatientRepository.class)
+        .saveAll(BenchmarkFixtures.patients(patientCount));
+    final Patient target = patients.get(patients.size() / 2);
+    query = switch (queryType) {
+      case "uuid" -> target.getId().toString();
+      case "phone" -> target.getPhoneNumber();
+      case "name" -> target.getLastName();
+      case "full_name" -> target.getFirstName() + " " + target.getLastName();
+      default -> throw new IllegalArgumentException("Unknown query type: " + queryType);
+    };
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<PatientSummary> searchPatients() {
+    return patientService.searchPatients(query);
+  }
+}
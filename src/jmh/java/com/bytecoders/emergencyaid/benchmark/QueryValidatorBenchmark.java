@@ -0,0 +1,69 @@
+package com.bytecoders.emergencyaid.benchmark;
+
+import com.bytecoders.emergencyaid.util.QueryValidator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link QueryValidator} classification, in the same order PatientService
+ * applies the checks to a search query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryValidatorBenchmark {
+
+  private static final Map<String, String> QUERIES = Map.of(
+      "uuid", "9101d183-26e6-45b7-a8c4-25f24fdb36fa",
+      "phone", "800-555-1234",
+      "name", "Johnson",
+      "full_name", "Mary Johnson");
+
+  @Param({"uuid", "phone", "name", "full_name"})
+  private String queryType;
+
+  private QueryValidator queryValidator;
+  private String query;
+
+  @Setup
+  public void setup() {
+    queryValidator = new QueryValidator();
+    query = QUERIES.get(queryType);
+  }
+
+  /**
+   * Classify the query as PatientService.searchPatients does.
+   *
+   * @return the index of the first check that matched
+   */
+  @Benchmark
+  public int classify() {
+    if (queryValidator.isUuid(query)) {
+      return 0;
+    }
+    if (queryValidator.isPhoneNumber(query)) {
+      return 1;
+    }
+    if (queryValidator.isName(query)) {
+      return 2;
+    }
+    if (queryValidator.isFullName(query)) {
+      return 3;
+    }
+    return -1;
+  }
+}
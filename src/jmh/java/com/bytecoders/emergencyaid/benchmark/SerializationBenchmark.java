@@ -0,0 +1,89 @@
+package com.bytecoders.emergencyaid.benchmark;
+
+import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.bytecoders.emergencyaid.util.UuidV7;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks serializing a {@code GET /patients} response of {@code patientCount} patients, with
+ * and without the Blackbird module, and with gzip as the server compresses it. The JSON and gzip
+ * sizes, ie the bytes on the wire, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({"10000"})
+  private int patientCount;
+
+  @Param({"default", "blackbird"})
+  private String mapper;
+
+  private ObjectWriter writer;
+  private List<PatientSummary> patients;
+
+  /** Builds the response body and an ObjectWriter configured like Spring Boot's. */
+  @Setup
+  public void setup() throws IOException {
+    final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    if ("blackbird".equals(mapper)) {
+      objectMapper.registerModule(new BlackbirdModule());
+    }
+    writer = objectMapper.writerFor(new TypeReference<List<PatientSummary>>() { });
+
+    final List<Patient> fixtures = BenchmarkFixtures.patients(patientCount);
+    patients = fixtures.stream()
+        .map(p -> new PatientSummary(UuidV7.generate(), p.getFirstName(), p.getLastName(),
+            p.getPhoneNumber(), null, 0L))
+        .toList();
+
+    final byte[] json = serialize();
+    System.out.printf("%n%d patients: %d bytes JSON, %d bytes gzip%n",
+        patientCount, json.length, serializeGzip().length);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws IOException {
+    return writer.writeValueAsBytes(patients);
+  }
+
+  /**
+   * Serializes straight into a gzip stream, as Tomcat's response compression does.
+   *
+   * @return the compressed body
+   * @throws IOException never, the stream is in memory
+   */
+  @Benchmark
+  public byte[] serializeGzip() throws IOException {
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(body)) {
+      writer.writeValue(gzip, patients);
+    }
+    return body.toByteArray();
+  }
+}
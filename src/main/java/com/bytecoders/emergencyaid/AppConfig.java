@@ -1,11 +1,23 @@
 package com.bytecoders.emergencyaid;
 
+import com.bytecoders.emergencyaid.monitoring.PharmaidMetricsInterceptor;
 import com.bytecoders.emergencyaid.security.JwtRequestFilter;
+import com.bytecoders.emergencyaid.security.RateLimitFilter;
 import com.bytecoders.emergencyaid.util.JwtUtils;
 import com.bytecoders.emergencyaid.util.PasswordUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -21,17 +33,60 @@ public class AppConfig {
   @Autowired
   private JwtRequestFilter jwtRequestFilter;
 
+  @Autowired
+  private RateLimitFilter rateLimitFilter;
+
   @Autowired
   private JwtUtils jwtUtils;
 
   @Bean
-  public PasswordUtils passwordUtils() {
-    return new PasswordUtils();
+  public PasswordUtils passwordUtils(MeterRegistry meterRegistry,
+      @Value("${security.password.bcrypt-log-rounds:10}") int logRounds) {
+    return new PasswordUtils(meterRegistry, logRounds);
+  }
+
+  /**
+   * Pooled HTTP client for PharmaId API calls. Connections are kept alive, so the TLS handshake
+   * to PharmaId is paid once per connection rather than once per call; the pool is closed with
+   * the application context.
+   *
+   * @param maxConnections the maximum number of pooled PharmaId connections
+   * @return the HTTP client
+   */
+  @Bean(destroyMethod = "close")
+  public CloseableHttpClient pharmaidHttpClient(
+      @Value("${pharmaid.api.max-connections:20}") int maxConnections) {
+    // all calls go to one host, so the per-route limit is the pool size
+    return HttpClients.custom()
+        .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .build())
+        .evictExpiredConnections()
+        .build();
   }
 
+  /**
+   * RestTemplate for PharmaId API calls, instrumented with per-endpoint metrics. Built from
+   * the auto-configured builder so calls are traced and propagate trace context headers. PharmaId
+   * speaks JSON only, so the template has only the JSON converter, with the application's
+   * ObjectMapper, and does not advertise the CBOR and Smile encodings the API serves.
+   *
+   * @param builder                    Spring Boot's RestTemplateBuilder
+   * @param pharmaidMetricsInterceptor interceptor recording PharmaId call timers
+   * @param pharmaidHttpClient         the pooled HTTP client the requests are sent with
+   * @param objectMapper               the application's ObjectMapper
+   * @return the RestTemplate
+   */
   @Bean
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
+  public RestTemplate restTemplate(RestTemplateBuilder builder,
+      PharmaidMetricsInterceptor pharmaidMetricsInterceptor,
+      CloseableHttpClient pharmaidHttpClient, ObjectMapper objectMapper) {
+    return builder
+        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(pharmaidHttpClient))
+        .messageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+        .additionalInterceptors(pharmaidMetricsInterceptor)
+        .build();
   }
 
   /**
@@ -45,12 +100,18 @@ public class AppConfig {
   @Bean
   public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
     http.csrf(csrf -> csrf.disable()).authorizeHttpRequests(auth -> {
+      // the request was authorized before it went async, eg event streams
+      auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
       auth.requestMatchers(jwtUtils.getPublicEndpoints()).permitAll();
       auth.anyRequest().authenticated();
     }).sessionManagement(
-        session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        // POST /logout revokes the JWT; there is no session for the default handler to end
+        .logout(logout -> logout.disable());
 
     http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+    // after authentication, so authenticated requests are limited per user rather than per IP
+    http.addFilterAfter(rateLimitFilter, JwtRequestFilter.class);
 
     return http.build();
   }
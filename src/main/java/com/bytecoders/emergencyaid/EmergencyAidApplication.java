@@ -2,12 +2,14 @@ package com.bytecoders.emergencyaid;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Class contains all the startup logic for the application.
  *
  */
 @SpringBootApplication
+@EnableScheduling
 public class EmergencyAidApplication {
 
   public static void main(String[] args) {
@@ -1,29 +1,57 @@
 package com.bytecoders.emergencyaid;
 
+import com.bytecoders.emergencyaid.events.PatientEventBroadcaster;
 import com.bytecoders.emergencyaid.openapi.model.LoginUserRequest;
 import com.bytecoders.emergencyaid.openapi.model.LoginUserResponse;
+import com.bytecoders.emergencyaid.openapi.model.LogoutRequest;
+import com.bytecoders.emergencyaid.openapi.model.RefreshTokenRequest;
+import com.bytecoders.emergencyaid.openapi.model.RefreshTokenResponse;
 import com.bytecoders.emergencyaid.openapi.model.RegisterPatientRequest;
 import com.bytecoders.emergencyaid.openapi.model.RegisterUserRequest;
+import com.bytecoders.emergencyaid.openapi.model.RevokeTokenRequest;
+import com.bytecoders.emergencyaid.priority.Priority;
+import com.bytecoders.emergencyaid.priority.PriorityLanes;
+import com.bytecoders.emergencyaid.repository.model.MergeSuggestion;
 import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.repository.model.PatientField;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.bytecoders.emergencyaid.repository.model.SparsePatientSummaries;
 import com.bytecoders.emergencyaid.repository.model.User;
 import com.bytecoders.emergencyaid.service.PatientService;
+import com.bytecoders.emergencyaid.service.PrescriptionCache;
+import com.bytecoders.emergencyaid.service.RefreshTokenService;
+import com.bytecoders.emergencyaid.service.TokenRevocationService;
 import com.bytecoders.emergencyaid.service.UserService;
+import com.bytecoders.emergencyaid.service.WarmupService;
+import com.bytecoders.emergencyaid.util.Etags;
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import com.bytecoders.emergencyaid.util.ResponseFormat;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * This class contains all the API routes for the system.
@@ -38,14 +66,40 @@ public class EmergencyAidController {
   @Autowired
   private PatientService patientService;
 
+  @Autowired
+  private RefreshTokenService refreshTokenService;
+
+  @Autowired
+  private TokenRevocationService tokenRevocationService;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  @Autowired
+  private PatientEventBroadcaster patientEventBroadcaster;
+
+  @Autowired
+  private WarmupService warmupService;
+
+  @Autowired
+  private PriorityLanes priorityLanes;
+
+  @Value("${pharmaid.api.prescriptions.pass-through:false}")
+  private boolean prescriptionPassThrough;
+
   /**
-   * Basic warmup endpoint for App Engine.
+   * Warmup endpoint for App Engine, called before a new instance receives traffic. Only the
+   * first call warms the instance; later calls return its report.
    *
-   * @return A String
+   * @param request the HTTP request, to check it comes from App Engine
+   * @return the time taken by each warmup step, or 404 for other clients
    */
   @GetMapping("/_ah/warmup")
-  public String warmup() {
-    return index();
+  public ResponseEntity<?> warmup(HttpServletRequest request) {
+    if (!warmupService.isAllowedSource(request.getRemoteAddr())) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+    return new ResponseEntity<>(warmupService.warmup(), HttpStatus.OK);
   }
   
   /**
@@ -100,6 +154,84 @@ public class EmergencyAidController {
     }
   }
 
+  /**
+   * Refresh token endpoint: exchanges a refresh token for a new JWT and refresh token, without
+   * the password check of a login.
+   *
+   * @param request RefreshTokenRequest
+   * @return a ResponseEntity with the new tokens, or 401 if the refresh token is not valid
+   */
+  @PostMapping(path = "/token/refresh")
+  public ResponseEntity<?> refreshToken(@RequestBody @Valid RefreshTokenRequest request) {
+    try {
+      Optional<RefreshTokenResponse> tokens =
+          refreshTokenService.refresh(request.getRefreshToken());
+
+      if (tokens.isEmpty()) {
+        return new ResponseEntity<>("Invalid or expired refresh token", HttpStatus.UNAUTHORIZED);
+      }
+      return new ResponseEntity<>(tokens.get(), HttpStatus.OK);
+
+    } catch (Exception e) {
+      return new ResponseEntity<>("Unexpected error encountered during token refresh",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Logout endpoint: revokes the JWT the request was authenticated with and, if given, every
+   * refresh token of the same login.
+   *
+   * @param authorization the Authorization header carrying the JWT
+   * @param request       LogoutRequest, optional
+   * @return a ResponseEntity with no content if the operation is successful
+   */
+  @PostMapping(path = "/logout")
+  public ResponseEntity<?> logoutUser(
+      @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+      @RequestBody(required = false) LogoutRequest request) {
+    try {
+      // the request filter only authenticates "Bearer " headers
+      tokenRevocationService.revoke(authorization.substring(7));
+      if (request != null && request.getRefreshToken() != null) {
+        refreshTokenService.revoke(request.getRefreshToken());
+      }
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
+    } catch (Exception e) {
+      return new ResponseEntity<>("Unexpected error encountered during logout",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Revoke token endpoint: revokes another JWT of the logged-in user, eg one issued to a lost
+   * device.
+   *
+   * @param request RevokeTokenRequest
+   * @return a ResponseEntity with no content if the token was revoked, or an error message
+   */
+  @PostMapping(path = "/token/revoke")
+  public ResponseEntity<?> revokeToken(@RequestBody @Valid RevokeTokenRequest request) {
+    try {
+      final String userId = jwtUtils.extractUserId(request.getToken());
+      if (!userId.equals(jwtUtils.getLoggedInUserId())) {
+        return new ResponseEntity<>("Token belongs to another user", HttpStatus.FORBIDDEN);
+      }
+      if (!tokenRevocationService.revoke(request.getToken())) {
+        return new ResponseEntity<>("Token was issued without an ID and cannot be revoked",
+            HttpStatus.BAD_REQUEST);
+      }
+      return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
+    } catch (JwtException e) {
+      return new ResponseEntity<>("Invalid or expired token", HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      return new ResponseEntity<>("Unexpected error encountered during token revocation",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
   /**
    * Register patient endpoint.
    *
@@ -123,15 +255,26 @@ public class EmergencyAidController {
   /**
    * Search patients endpoint.
    *
-   * @param q the search query. Can be UUID, phone number, or full name
+   * @param q      the search query. Can be UUID, phone number, or full name
+   * @param fields the patient fields to return, comma-separated; all if not given
+   * @param accept the Accept header, choosing JSON, CBOR or Smile
    * @return list of matching patients or an empty list if no matches found
    */
   @GetMapping("/patients/search")
-  public ResponseEntity<?> searchPatients(@RequestParam String q) {
+  public ResponseEntity<?> searchPatients(@RequestParam String q,
+      @RequestParam(required = false) String fields,
+      @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+    final Set<PatientField> selected;
+    try {
+      selected = PatientField.parse(fields);
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
     try {
       // search for patients
-      List<Patient> patients = patientService.searchPatients(q);
-      return new ResponseEntity<>(patients, HttpStatus.OK);
+      List<PatientSummary> patients = patientService.searchPatients(q, selected);
+      // a matching If-None-Match is answered with 304 before the body is serialized
+      return negotiated(Etags.ofPatients(patients), accept).body(patientsBody(patients, selected));
     } catch (Exception e) {
       return new ResponseEntity<>("Something went wrong during the search",
           HttpStatus.INTERNAL_SERVER_ERROR);
@@ -139,39 +282,158 @@ public class EmergencyAidController {
   }
 
   /**
-   * Get all patients endpoint.
+   * Get all patients endpoint. A bulk request, run on the bulk executor.
    *
+   * @param fields the patient fields to return, comma-separated; all if not given
+   * @param accept the Accept header, choosing JSON, CBOR or Smile
    * @return list of all patients available in EmergencyAid
    */
   @GetMapping("/patients")
-  public ResponseEntity<?> getAllPatients() {
-    try {
-      List<Patient> patients = patientService.getAllPatients();
-      return new ResponseEntity<>(patients, HttpStatus.OK);
-    } catch (Exception e) {
-      return new ResponseEntity<>("Something went wrong while retrieving all patients",
-          HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+  public WebAsyncTask<ResponseEntity<?>> getAllPatients(
+      @RequestParam(required = false) String fields,
+      @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+    return priorityLanes.bulk(() -> {
+      final Set<PatientField> selected;
+      try {
+        selected = PatientField.parse(fields);
+      } catch (IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+      }
+      try {
+        List<PatientSummary> patients = patientService.getAllPatients(selected);
+        // a matching If-None-Match is answered with 304 before the body is serialized
+        return negotiated(Etags.ofPatients(patients), accept)
+            .body(patientsBody(patients, selected));
+      } catch (Exception e) {
+        return new ResponseEntity<>("Something went wrong while retrieving all patients",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+    });
+  }
+
+  /**
+   * Patient registration event stream endpoint.
+   *
+   * @param lastEventId the last event a reconnecting client received, if any
+   * @return a server-sent event stream of registered patients, or 503 if too many streams are
+   *     open
+   */
+  @GetMapping(path = "/patients/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamPatientEvents(
+      @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+    return patientEventBroadcaster.subscribe(lastEventId)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+  }
+
+  /**
+   * Get merge suggestions endpoint.
+   *
+   * @param limit the maximum number of suggestions to return, between 1 and 500
+   * @return likely duplicate patient pairs, highest score first. A bulk request, run on the
+   *     bulk executor.
+   */
+  @GetMapping("/patients/merge-suggestions")
+  public WebAsyncTask<ResponseEntity<?>> getMergeSuggestions(
+      @RequestParam(defaultValue = "100") int limit) {
+    return priorityLanes.bulk(() -> {
+      if (limit < 1 || limit > 500) {
+        return new ResponseEntity<>("Limit must be between 1 and 500", HttpStatus.BAD_REQUEST);
+      }
+      try {
+        List<MergeSuggestion> suggestions = patientService.getMergeSuggestions(limit);
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
+      } catch (Exception e) {
+        return new ResponseEntity<>("Something went wrong while retrieving merge suggestions",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+    });
   }
 
   /**
    * Get patient prescriptions via PharmaId.
    *
    * @param patientId The patient ID
+   * @param accept    the Accept header, choosing JSON, CBOR or Smile
+   * @param response  the servlet response, written to directly in pass-through mode
    * @return list of patient's prescriptions, or empty list if no pharmaId or prescriptions exist.
+   *     Carries an ETag except in pass-through mode, where the body is never buffered. Runs at
+   *     critical priority, so it may use connections reserved from other requests.
    */
   @GetMapping("/patients/{patientId}/pharmaid/view")
-  public ResponseEntity<?> getPatientPrescriptions(@PathVariable UUID patientId) {
-    try {
+  public ResponseEntity<?> getPatientPrescriptions(@PathVariable UUID patientId,
+      @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+      HttpServletResponse response) {
+    try (Priority.Scope ignored = Priority.CRITICAL.enter()) {
+      // PharmaId answers in JSON, so only JSON can be passed through
+      if (prescriptionPassThrough && ResponseFormat.negotiate(accept) == ResponseFormat.JSON) {
+        return streamPatientPrescriptions(patientId, response);
+      }
+
       // logic for null pharmaId or empty prescriptions in PatientService
-      List<Map<String, Object>> prescriptions = patientService.getPatientPrescriptions(patientId);
-      return new ResponseEntity<>(prescriptions, HttpStatus.OK);
+      PrescriptionCache.Entry prescriptions =
+          patientService.getVersionedPatientPrescriptions(patientId);
+      return negotiated(prescriptions.etag(), accept).body(prescriptions.prescriptions());
     } catch (IllegalArgumentException e) {
       return new ResponseEntity<>("Invalid patient ID format", HttpStatus.BAD_REQUEST);
     } catch (Exception e) {
       log.error("Unexpected error while retrieving prescriptions", e);
+      if (response != null && response.isCommitted()) {
+        // part of the PharmaId body was already sent; the status can no longer change
+        return null;
+      }
       return new ResponseEntity<>("Unexpected error while retrieving prescriptions" + e,
           HttpStatus.INTERNAL_SERVER_ERROR);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Pass-through mode for prescriptions: VIEW access is obtained up front so errors can still be
+   * reported with a status code, then the PharmaId body is copied to the client as it arrives.
+   *
+   * @param patientId The patient ID
+   * @param response  the servlet response to copy the PharmaId body to
+   * @return null once the body has been written, or an empty list if the patient has no PharmaId
+   * @throws IOException if the response cannot be written
+   */
+  private ResponseEntity<?> streamPatientPrescriptions(UUID patientId,
+      HttpServletResponse response) throws IOException {
+    final Optional<String> pharmaId = patientService.authorizePrescriptionView(patientId);
+    if (pharmaId.isEmpty()) {
+      return new ResponseEntity<>(List.of(), HttpStatus.OK);
+    }
+
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    patientService.streamPatientPrescriptions(pharmaId.get(), response.getOutputStream());
+    return null;
+  }
+
+  /**
+   * Response body for patient summaries: the list itself, or only the selected fields of each.
+   *
+   * @param patients the summaries
+   * @param fields   the selected fields
+   * @return the body to serialize
+   */
+  private static Object patientsBody(List<PatientSummary> patients, Set<PatientField> fields) {
+    if (fields.containsAll(PatientField.ALL)) {
+      return patients;
+    }
+    return new SparsePatientSummaries(patients, fields);
+  }
+
+  /**
+   * Starts a 200 response whose encoding is negotiated from the Accept header. Each encoding
+   * gets its own ETag, and caches are told the body varies by Accept.
+   *
+   * @param etag   the quoted ETag of the representation
+   * @param accept the Accept header, or null
+   * @return the response builder
+   */
+  private static ResponseEntity.BodyBuilder negotiated(String etag, String accept) {
+    return ResponseEntity.ok()
+        .eTag(ResponseFormat.negotiate(accept).etagFor(etag))
+        .varyBy(HttpHeaders.ACCEPT);
+  }
+}
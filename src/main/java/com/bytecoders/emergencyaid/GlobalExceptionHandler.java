@@ -5,6 +5,8 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -74,4 +76,18 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
         "The request body is missing or improperly formatted. Please provide the required data.");
   }
+
+  /**
+   * Handler for bulk requests rejected because the bulk executor's queue is full.
+   *
+   * @param ex TaskRejectedException
+   * @return ResponseEntity indicating SERVICE_UNAVAILABLE
+   */
+  @ExceptionHandler(TaskRejectedException.class)
+  public ResponseEntity<String> handleTaskRejectedException(TaskRejectedException ex) {
+    log.warn("Bulk request rejected: {}", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "5")
+        .body("Too many bulk requests in progress, please retry");
+  }
 }
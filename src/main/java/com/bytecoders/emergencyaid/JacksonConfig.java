@@ -0,0 +1,79 @@
+package com.bytecoders.emergencyaid;
+
+import com.bytecoders.emergencyaid.util.ResponseFormat;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Jackson modules registered with Spring Boot's auto-configured ObjectMapper, which is used for
+ * API responses as well as PharmaId payloads, and the binary encodings offered next to JSON.
+ */
+@Configuration
+public class JacksonConfig {
+
+  /**
+   * Replaces reflective getter and constructor calls with generated lambdas, speeding up
+   * serialization of large lists. Not used in a native image, which cannot define classes at
+   * runtime.
+   *
+   * @return the Blackbird module, or an empty module in a native image
+   */
+  @Bean
+  public Module blackbirdModule() {
+    if (NativeDetector.inNativeImage()) {
+      return new SimpleModule("blackbird-disabled");
+    }
+    return new BlackbirdModule();
+  }
+
+  /**
+   * Serializes uninitialized Hibernate proxies and lazy collections as null (or their ID)
+   * instead of loading them, or failing, during serialization.
+   *
+   * @return the Hibernate module
+   */
+  @Bean
+  public Module hibernateModule() {
+    return new Hibernate6Module()
+        .enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+  }
+
+  /**
+   * Answers {@code Accept: application/cbor} with CBOR, see {@link ResponseFormat}. The mapper
+   * comes from Spring Boot's builder, so it has the same modules and settings as the JSON one.
+   * Replaces the converter Spring MVC would add with a plain mapper.
+   *
+   * @param builder Spring Boot's ObjectMapper builder, a new one per injection point
+   * @return the CBOR converter
+   */
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(
+        builder.factory(new CBORFactory()).build());
+  }
+
+  /**
+   * Answers {@code Accept: application/x-jackson-smile} with Smile, like
+   * {@link #cborHttpMessageConverter}.
+   *
+   * @param builder Spring Boot's ObjectMapper builder, a new one per injection point
+   * @return the Smile converter
+   */
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(
+        builder.factory(new SmileFactory()).build());
+  }
+}
@@ -0,0 +1,64 @@
+package com.bytecoders.emergencyaid;
+
+import com.bytecoders.emergencyaid.openapi.model.LoginUserResponse;
+import com.bytecoders.emergencyaid.openapi.model.Medication;
+import com.bytecoders.emergencyaid.openapi.model.Prescription;
+import com.bytecoders.emergencyaid.openapi.model.RefreshTokenResponse;
+import com.bytecoders.emergencyaid.repository.model.MergeSuggestion;
+import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.bytecoders.emergencyaid.repository.model.SparsePatientSummaries;
+import com.bytecoders.emergencyaid.repository.model.User;
+import com.bytecoders.emergencyaid.repository.model.UuidPrimaryKeyGenerator;
+import java.sql.Connection;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the GraalVM native image (mvn -Pnative,fast-startup
+ * native:compile). Spring infers hints for request bodies and typed return values only; the
+ * types below are serialized behind {@code ResponseEntity<?>} or loaded reflectively by
+ * libraries. Has no effect on the JVM.
+ */
+@Configuration
+@ImportRuntimeHints(NativeConfig.Hints.class)
+@RegisterReflectionForBinding({Patient.class, PatientSummary.class, MergeSuggestion.class,
+    User.class, LoginUserResponse.class, RefreshTokenResponse.class, Prescription.class,
+    Medication.class, SparsePatientSummaries.class})
+public class NativeConfig {
+
+  // jjwt-impl and jjwt-jackson are runtime dependencies that jjwt-api loads by name
+  private static final String[] JJWT_CLASSES = {
+      "io.jsonwebtoken.impl.DefaultJwtBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtParser",
+      "io.jsonwebtoken.impl.DefaultClaims",
+      "io.jsonwebtoken.impl.DefaultHeader",
+      "io.jsonwebtoken.impl.DefaultJwsHeader",
+      "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+      "io.jsonwebtoken.jackson.io.JacksonSerializer",
+      "io.jsonwebtoken.jackson.io.JacksonDeserializer"};
+
+  static class Hints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+      // Hibernate creates @IdGeneratorType generators through their constructor
+      hints.reflection().registerType(UuidPrimaryKeyGenerator.class,
+          MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+      for (String className : JJWT_CLASSES) {
+        hints.reflection().registerType(TypeReference.of(className),
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+      }
+      // Boot only registers the default Flyway location, not the per-vendor directories
+      hints.resources().registerPattern("db/migration/*/*.sql");
+      // PriorityDataSource hands out connections behind a JDK proxy
+      hints.proxies().registerJdkProxy(Connection.class);
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package com.bytecoders.emergencyaid.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Filter in front of the controller that sheds load with 503 once the {@link GradientLimit} of
+ * requests is in flight, instead of letting them queue for Tomcat threads and database
+ * connections until they time out. It runs after the security filters, so rate-limited and
+ * unauthenticated requests never take a slot.
+ *
+ * <p>Routes map to partitions ({@code PATTERN=PARTITION}, first match wins, else "default"),
+ * each guaranteed a share of the limit, so listing patients cannot crowd out prescription views.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+  private static final String DEFAULT_PARTITION = "default";
+
+  private final boolean enabled;
+
+  private final PartitionedLimiter limiter;
+
+  private final Map<PathPattern, PartitionedLimiter.Partition> routes = new LinkedHashMap<>();
+
+  private final List<PathPattern> exempt = new ArrayList<>();
+
+  private final Map<String, Counter> rejected = new HashMap<>();
+
+  /**
+   * Creates the filter from its configuration.
+   *
+   * @param enabled       whether to limit at all
+   * @param initialLimit  limit until enough latencies are seen
+   * @param minLimit      lowest limit
+   * @param maxLimit      highest limit, at most the number of Tomcat threads
+   * @param tolerance     latency increase, as a ratio, before the limit shrinks
+   * @param windowMs      shortest latency averaging window
+   * @param shares        partition shares, {@code PARTITION=SHARE}, including "default"
+   * @param routeMappings partitions of routes, {@code PATTERN=PARTITION}
+   * @param exemptRoutes  patterns that are never limited, eg long-lived event streams
+   * @param meterRegistry registry for limit metrics
+   */
+  public ConcurrencyLimitFilter(
+      @Value("${emergencyaid.concurrency.enabled:true}") boolean enabled,
+      @Value("${emergencyaid.concurrency.initial-limit:20}") int initialLimit,
+      @Value("${emergencyaid.concurrency.min-limit:4}") int minLimit,
+      @Value("${emergencyaid.concurrency.max-limit:200}") int maxLimit,
+      @Value("${emergencyaid.concurrency.rtt-tolerance:1.5}") double tolerance,
+      @Value("${emergencyaid.concurrency.window-ms:100}") long windowMs,
+      @Value("${emergencyaid.concurrency.partitions:default=1.0}") String[] shares,
+      @Value("${emergencyaid.concurrency.routes:}") String[] routeMappings,
+      @Value("${emergencyaid.concurrency.exempt:/_ah/warmup,/actuator/**,/patients/events}")
+      String[] exemptRoutes,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+
+    final Map<String, Double> partitionShares = new LinkedHashMap<>();
+    for (String share : shares) {
+      final String[] parts = split(share, "PARTITION=SHARE");
+      partitionShares.put(parts[0], Double.parseDouble(parts[1]));
+    }
+    if (!partitionShares.containsKey(DEFAULT_PARTITION)) {
+      throw new IllegalArgumentException("Concurrency partitions must include \"default\"");
+    }
+    final GradientLimit limit = new GradientLimit(initialLimit, minLimit, maxLimit, tolerance,
+        TimeUnit.MILLISECONDS.toNanos(windowMs), 10);
+    this.limiter = new PartitionedLimiter(limit, partitionShares);
+
+    final PathPatternParser parser = PathPatternParser.defaultInstance;
+    for (String mapping : routeMappings) {
+      if (mapping.isBlank()) {
+        continue;
+      }
+      final String[] parts = split(mapping, "PATTERN=PARTITION");
+      routes.put(parser.parse(parts[0]), limiter.partition(parts[1]));
+    }
+    for (String route : exemptRoutes) {
+      exempt.add(parser.parse(route.trim()));
+    }
+
+    Gauge.builder("emergencyaid.concurrency.limit", limiter, PartitionedLimiter::getLimit)
+        .description("Requests allowed in flight")
+        .register(meterRegistry);
+    for (PartitionedLimiter.Partition partition : limiter.partitions()) {
+      Gauge.builder("emergencyaid.concurrency.inflight", partition,
+              PartitionedLimiter.Partition::getInflight)
+          .description("Requests in flight")
+          .tag("partition", partition.getName())
+          .register(meterRegistry);
+      rejected.put(partition.getName(), Counter.builder("emergencyaid.concurrency.rejected")
+          .description("Requests shed with 503")
+          .tag("partition", partition.getName())
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Admit the request within its partition's limit, or reject it with 503. An async request holds
+   * its slot until the async work ends. Its latency is fed back to the limit unless it was a
+   * client error.
+   *
+   * @param request  the HTTP request to be processed
+   * @param response the HTTP response to be generated
+   * @param chain    the filter chain to pass control to the next filter
+   * @throws ServletException if an error occurs during the filter process
+   * @throws IOException      if an input/output error occurs during the filter process
+   */
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (!enabled) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    final PathContainer path = PathContainer.parsePath(request.getRequestURI());
+    for (PathPattern pattern : exempt) {
+      if (pattern.matches(path)) {
+        chain.doFilter(request, response);
+        return;
+      }
+    }
+
+    final PartitionedLimiter.Partition partition = match(path);
+    final int inflight = limiter.tryAcquire(partition);
+    if (inflight == 0) {
+      rejected.get(partition.getName()).increment();
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+      response.getWriter().write("Server is overloaded, please retry");
+      return;
+    }
+
+    final long start = System.nanoTime();
+    boolean async = false;
+    try {
+      chain.doFilter(request, response);
+      async = request.isAsyncStarted();
+      if (async) {
+        // async dispatches skip this filter, so hold the slot until the async work ends
+        request.getAsyncContext().addListener(
+            new ReleasingListener(partition, start, inflight, response));
+      }
+    } finally {
+      if (!async) {
+        release(partition, start, inflight, response);
+      }
+    }
+  }
+
+  private void release(PartitionedLimiter.Partition partition, long start, int inflight,
+      HttpServletResponse response) {
+    // client errors are answered before any real work
+    final boolean sample = response.getStatus() < 400 || response.getStatus() >= 500;
+    final long now = System.nanoTime();
+    limiter.release(partition, now, sample ? now - start : -1, inflight);
+  }
+
+  private PartitionedLimiter.Partition match(PathContainer path) {
+    for (Map.Entry<PathPattern, PartitionedLimiter.Partition> route : routes.entrySet()) {
+      if (route.getKey().matches(path)) {
+        return route.getValue();
+      }
+    }
+    return limiter.partition(DEFAULT_PARTITION);
+  }
+
+  /**
+   * Releases an async request's slot once, when it completes, fails or times out.
+   */
+  private final class ReleasingListener implements AsyncListener {
+
+    private final PartitionedLimiter.Partition partition;
+
+    private final long start;
+
+    private final int inflight;
+
+    private final HttpServletResponse response;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private ReleasingListener(PartitionedLimiter.Partition partition, long start, int inflight,
+        HttpServletResponse response) {
+      this.partition = partition;
+      this.start = start;
+      this.inflight = inflight;
+      this.response = response;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      releaseOnce();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      releaseOnce();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      releaseOnce();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      // a re-started async request keeps this listener only if it adds it again
+      event.getAsyncContext().addListener(this);
+    }
+
+    private void releaseOnce() {
+      if (released.compareAndSet(false, true)) {
+        release(partition, start, inflight, response);
+      }
+    }
+  }
+
+  private static String[] split(String entry, String format) {
+    final int separator = entry.lastIndexOf('=');
+    if (separator < 0) {
+      throw new IllegalArgumentException("Expected " + format + ": " + entry);
+    }
+    return new String[]{entry.substring(0, separator).trim(),
+        entry.substring(separator + 1).trim()};
+  }
+}
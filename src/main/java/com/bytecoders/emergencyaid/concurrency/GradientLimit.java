@@ -0,0 +1,128 @@
+package com.bytecoders.emergencyaid.concurrency;
+
+/**
+ * Concurrency limit learned from latency, after the gradient algorithm of Netflix's
+ * concurrency-limits. Request latencies are averaged over short windows and compared with a
+ * long-term average: while they stay within {@code tolerance} of it the limit grows by about
+ * its square root per window, and as they climb above it the limit shrinks in proportion, down
+ * to half per window.
+ *
+ * <p>Windows in which fewer than half of the limit's requests were in flight say nothing about
+ * the limit, so they do not change it.
+ */
+public class GradientLimit {
+
+  // windows averaged into the long-term latency
+  private static final int LONG_WINDOW = 100;
+
+  // share of each new limit estimate taken into the limit
+  private static final double SMOOTHING = 0.2;
+
+  // long-term to short-term latency ratio above which the long-term average decays faster
+  private static final double RTT_DROP_RATIO = 2;
+
+  private final int minLimit;
+
+  private final int maxLimit;
+
+  private final double tolerance;
+
+  private final long minWindowNanos;
+
+  private final int minWindowSamples;
+
+  private volatile int limit;
+
+  private double estimatedLimit;
+
+  private double longRttNanos;
+
+  private long windowStart;
+
+  private long windowRttSum;
+
+  private int windowSamples;
+
+  private int windowMaxInflight;
+
+  /**
+   * Creates a limit.
+   *
+   * @param initialLimit     limit until enough latencies are seen
+   * @param minLimit         lowest limit
+   * @param maxLimit         highest limit
+   * @param tolerance        latency increase over the long-term average, as a ratio, before the
+   *                         limit shrinks
+   * @param minWindowNanos   shortest window
+   * @param minWindowSamples fewest samples in a window
+   */
+  public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+      long minWindowNanos, int minWindowSamples) {
+    if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || tolerance < 1) {
+      throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max and "
+          + "tolerance must be at least 1");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.minWindowNanos = minWindowNanos;
+    this.minWindowSamples = minWindowSamples;
+    this.limit = initialLimit;
+    this.estimatedLimit = initialLimit;
+  }
+
+  /**
+   * Current limit.
+   *
+   * @return the number of requests that may be in flight
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Records a completed request.
+   *
+   * @param now      {@link System#nanoTime()}
+   * @param rttNanos the request's latency
+   * @param inflight requests in flight when it started, including itself
+   */
+  public synchronized void onSample(long now, long rttNanos, int inflight) {
+    if (windowSamples == 0) {
+      windowStart = now;
+    }
+    windowRttSum += rttNanos;
+    windowSamples++;
+    windowMaxInflight = Math.max(windowMaxInflight, inflight);
+    if (windowSamples < minWindowSamples || now - windowStart < minWindowNanos) {
+      return;
+    }
+
+    update((double) windowRttSum / windowSamples, windowMaxInflight);
+    windowRttSum = 0;
+    windowSamples = 0;
+    windowMaxInflight = 0;
+  }
+
+  private void update(double shortRttNanos, int maxInflight) {
+    if (longRttNanos == 0) {
+      longRttNanos = shortRttNanos;
+    } else {
+      longRttNanos += (shortRttNanos - longRttNanos) / LONG_WINDOW;
+    }
+    // after a sustained drop in latency, let the long-term average catch up faster
+    if (longRttNanos / shortRttNanos > RTT_DROP_RATIO) {
+      longRttNanos *= 0.95;
+    }
+    if (maxInflight < estimatedLimit / 2) {
+      return;
+    }
+
+    final double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+    final double queueSize = Math.sqrt(estimatedLimit);
+    final double newLimit = estimatedLimit * gradient + queueSize;
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+        estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    limit = (int) estimatedLimit;
+  }
+}
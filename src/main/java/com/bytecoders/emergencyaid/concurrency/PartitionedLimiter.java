@@ -0,0 +1,127 @@
+package com.bytecoders.emergencyaid.concurrency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits requests while fewer than the {@link GradientLimit} are in flight. Each partition is
+ * guaranteed its share of the limit: once the limit is reached, a partition still admits
+ * requests until it holds its share, so a flood in one partition cannot starve the others.
+ * Below the limit partitions may borrow each other's unused share.
+ */
+public class PartitionedLimiter {
+
+  private final GradientLimit limit;
+
+  private final Map<String, Partition> partitionsByName = new LinkedHashMap<>();
+
+  private final AtomicInteger inflight = new AtomicInteger();
+
+  /**
+   * Creates a limiter.
+   *
+   * @param limit  the adaptive limit shared by all partitions
+   * @param shares each partition's guaranteed share of the limit, summing to at most 1
+   */
+  public PartitionedLimiter(GradientLimit limit, Map<String, Double> shares) {
+    final double total = shares.values().stream().mapToDouble(Double::doubleValue).sum();
+    if (shares.isEmpty() || total > 1.0001) {
+      throw new IllegalArgumentException("Partition shares must sum to at most 1: " + shares);
+    }
+    this.limit = limit;
+    shares.forEach((name, share) -> partitionsByName.put(name, new Partition(name, share)));
+  }
+
+  /**
+   * Looks up a partition.
+   *
+   * @param name the partition name
+   * @return the partition
+   * @throws IllegalArgumentException if there is no such partition
+   */
+  public Partition partition(String name) {
+    final Partition partition = partitionsByName.get(name);
+    if (partition == null) {
+      throw new IllegalArgumentException("Unknown concurrency partition: " + name);
+    }
+    return partition;
+  }
+
+  /**
+   * Admits a request, unless the limit and the partition's share are both reached.
+   *
+   * @param partition the request's partition
+   * @return requests in flight including this one, or 0 if the request was rejected
+   */
+  public int tryAcquire(Partition partition) {
+    final int current = limit.getLimit();
+    final int total = inflight.incrementAndGet();
+    final int own = partition.inflight.incrementAndGet();
+    if (total > current && own > partition.guaranteed(current)) {
+      partition.inflight.decrementAndGet();
+      inflight.decrementAndGet();
+      return 0;
+    }
+    return total;
+  }
+
+  /**
+   * Releases an admitted request and feeds its latency to the limit.
+   *
+   * @param partition the request's partition
+   * @param now       {@link System#nanoTime()}
+   * @param rttNanos  the request's latency, or a negative value to skip the sample, eg for
+   *                  requests that failed before doing their work
+   * @param inflight  the value returned by {@link #tryAcquire}
+   */
+  public void release(Partition partition, long now, long rttNanos, int inflight) {
+    partition.inflight.decrementAndGet();
+    this.inflight.decrementAndGet();
+    if (rttNanos >= 0) {
+      limit.onSample(now, rttNanos, inflight);
+    }
+  }
+
+  public int getLimit() {
+    return limit.getLimit();
+  }
+
+  public int getInflight() {
+    return inflight.get();
+  }
+
+  public Iterable<Partition> partitions() {
+    return partitionsByName.values();
+  }
+
+  /**
+   * A group of routes with a guaranteed share of the limit.
+   */
+  public static final class Partition {
+
+    private final String name;
+
+    private final double share;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private Partition(String name, double share) {
+      this.name = name;
+      this.share = share;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getInflight() {
+      return inflight.get();
+    }
+
+    private int guaranteed(int limit) {
+      // shares such as 0.3 are not exact in binary; 10 * 0.3 must give 3, not 4
+      return Math.max(1, (int) Math.ceil(limit * share - 1e-9));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.bytecoders.emergencyaid.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Splits reads and writes across the primary and a read replica when
+ * {@code emergencyaid.datasource.replica.enabled} is set. The primary pool is configured from
+ * {@code spring.datasource.*} as before; the replica pool from
+ * {@code emergencyaid.datasource.replica.hikari.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "emergencyaid.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+  /**
+   * The primary pool, equivalent to the one Spring Boot creates without a replica.
+   *
+   * @param properties the spring.datasource properties
+   * @return the primary Hikari pool
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * A separate pool for the read replica.
+   *
+   * @return the replica Hikari pool
+   */
+  @Bean
+  @ConfigurationProperties("emergencyaid.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource() {
+    return new HikariDataSource();
+  }
+
+  /**
+   * Tracks replica health, see {@link ReplicaHealthChecker}.
+   *
+   * @param replica       the replica pool
+   * @param maxLagMs      the replication lag above which reads go to the primary
+   * @param meterRegistry registry for the replica gauges
+   * @return the health checker
+   */
+  @Bean
+  public ReplicaHealthChecker replicaHealthChecker(
+      @Qualifier("replicaDataSource") DataSource replica,
+      @Value("${emergencyaid.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+      MeterRegistry meterRegistry) {
+    return new ReplicaHealthChecker(replica, maxLagMs, meterRegistry);
+  }
+
+  /**
+   * The application data source, routing read-only transactions to the replica.
+   *
+   * @param primary       the primary pool
+   * @param replica       the replica pool
+   * @param replicaHealth the replica health checker
+   * @return a lazily connecting routing data source
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica, ReplicaHealthChecker replicaHealth) {
+    return new LazyConnectionDataSourceProxy(
+        new ReplicaRoutingDataSource(primary, replica, replicaHealth));
+  }
+}
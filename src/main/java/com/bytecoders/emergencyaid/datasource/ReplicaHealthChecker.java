@@ -0,0 +1,93 @@
+package com.bytecoders.emergencyaid.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Polls the read replica's replication lag. The replica is only used while the last check
+ * succeeded and the lag was within the configured limit; until the first check runs it is
+ * treated as unavailable.
+ */
+@Slf4j
+public class ReplicaHealthChecker {
+
+  // zero when all received WAL has been replayed, otherwise time since the last replayed commit
+  static final String LAG_QUERY = "SELECT CASE"
+      + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+      + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+  private final DataSource replica;
+
+  private final long maxLagMs;
+
+  private volatile boolean available;
+
+  private volatile double lagMs = Double.NaN;
+
+  /**
+   * Creates a checker for the given replica pool.
+   *
+   * @param replica       the read replica pool
+   * @param maxLagMs      the replication lag above which reads go to the primary
+   * @param meterRegistry registry for the replica availability and lag gauges
+   */
+  public ReplicaHealthChecker(DataSource replica, long maxLagMs, MeterRegistry meterRegistry) {
+    this.replica = replica;
+    this.maxLagMs = maxLagMs;
+    Gauge.builder("emergencyaid.datasource.replica.available", this, c -> c.available ? 1 : 0)
+        .description("Whether read-only transactions are routed to the read replica")
+        .register(meterRegistry);
+    Gauge.builder("emergencyaid.datasource.replica.lag", this, c -> c.lagMs)
+        .description("Replication lag of the read replica at the last check")
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Queries the replica's replication lag and updates its availability.
+   */
+  @Scheduled(fixedDelayString = "${emergencyaid.datasource.replica.check-interval-ms:5000}")
+  public void check() {
+    final boolean wasAvailable = available;
+    try (Connection connection = replica.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+      if (!resultSet.next()) {
+        throw new SQLException("Replication lag query returned no row");
+      }
+      // NULL when the server is not in recovery, ie not a replica
+      final double lag = resultSet.getDouble(1);
+      lagMs = resultSet.wasNull() ? Double.NaN : lag;
+      available = !resultSet.wasNull() && lag <= maxLagMs;
+    } catch (SQLException e) {
+      lagMs = Double.NaN;
+      available = false;
+      if (wasAvailable) {
+        log.warn("Read replica check failed: {}", e.getMessage());
+      }
+    }
+
+    if (available != wasAvailable) {
+      log.info("Read replica {} (lag {} ms, limit {} ms)",
+          available ? "in use" : "out of rotation", lagMs, maxLagMs);
+    }
+  }
+
+  public boolean isAvailable() {
+    return available;
+  }
+
+  /**
+   * Takes the replica out of rotation until the next successful check.
+   */
+  public void markUnavailable() {
+    available = false;
+  }
+}
@@ -0,0 +1,77 @@
+package com.bytecoders.emergencyaid.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the read replica while it is healthy, and
+ * everything else to the primary. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: JPA transactions
+ * open their connection before the read-only flag is bound to the thread. Final, as the
+ * constructor configures the targets through inherited setters.
+ */
+@Slf4j
+public final class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  /**
+   * Lookup keys of the routed data sources.
+   */
+  public enum Route {
+    PRIMARY, REPLICA
+  }
+
+  private final ReplicaHealthChecker replicaHealth;
+
+  /**
+   * Creates a routing data source over the given pools.
+   *
+   * @param primary       the primary pool, used for writes and as the fallback
+   * @param replica       the read replica pool
+   * @param replicaHealth tracks whether the replica is reachable and within the lag limit
+   */
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+      ReplicaHealthChecker replicaHealth) {
+    this.replicaHealth = replicaHealth;
+    setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        && replicaHealth.isAvailable() ? Route.REPLICA : Route.PRIMARY;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (determineCurrentLookupKey() != Route.REPLICA) {
+      return getPrimary().getConnection();
+    }
+    try {
+      return getReplica().getConnection();
+    } catch (SQLException e) {
+      log.warn("Read replica unavailable, falling back to primary: {}", e.getMessage());
+      replicaHealth.markUnavailable();
+      return getPrimary().getConnection();
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return getPrimary().getConnection(username, password);
+  }
+
+  private DataSource getPrimary() {
+    return getResolvedDataSources().get(Route.PRIMARY);
+  }
+
+  private DataSource getReplica() {
+    return getResolvedDataSources().get(Route.REPLICA);
+  }
+}
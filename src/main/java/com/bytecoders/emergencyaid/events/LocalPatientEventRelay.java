@@ -0,0 +1,29 @@
+package com.bytecoders.emergencyaid.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Broadcasts registrations to the subscribers of this instance only. Used when a single
+ * instance serves all streams; see {@link PostgresPatientEventRelay} for several instances.
+ */
+@Component
+@ConditionalOnProperty(name = "emergencyaid.events.relay", havingValue = "local",
+    matchIfMissing = true)
+public class LocalPatientEventRelay {
+
+  @Autowired
+  private PatientEventBroadcaster broadcaster;
+
+  /**
+   * Broadcasts a registration once its transaction has committed.
+   *
+   * @param event the registration
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPatientRegistered(PatientRegisteredEvent event) {
+    broadcaster.publish(event.patient());
+  }
+}
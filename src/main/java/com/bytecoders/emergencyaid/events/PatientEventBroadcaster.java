@@ -0,0 +1,302 @@
+package com.bytecoders.emergencyaid.events;
+
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fans patient registrations out to server-sent event subscribers.
+ *
+ * <p>Event IDs are {@code <epoch>-<sequence>}, where the epoch identifies this broadcaster
+ * instance. The last {@code history-size} events are kept so a reconnecting client can resume
+ * from its {@code Last-Event-ID}; if that ID is from another instance or too old, the client gets
+ * a {@value #RESET_EVENT} event and should reload the patient list instead.
+ *
+ * <p>Subscribers hold no thread while idle. Each one has a bounded queue that is drained on a
+ * small shared pool, so a slow client never delays publishing; a client that falls a full buffer
+ * behind is disconnected and can resume from its last event ID.
+ */
+@Slf4j
+@Component
+public class PatientEventBroadcaster {
+
+  static final String REGISTERED_EVENT = "patient-registered";
+
+  static final String RESET_EVENT = "reset";
+
+  /**
+   * One server-sent event, serialized once and shared by all subscribers.
+   *
+   * @param id   the event ID, or null for comments
+   * @param name the event name, or null for comments
+   * @param data the event data, or the comment text
+   */
+  record Message(String id, String name, String data) {
+
+    SseEmitter.SseEventBuilder toEvent() {
+      if (name == null) {
+        return SseEmitter.event().comment(data);
+      }
+      return SseEmitter.event().id(id).name(name).data(data);
+    }
+  }
+
+  private static final Message HEARTBEAT_MESSAGE = new Message(null, null, "heartbeat");
+
+  private final class Subscriber {
+
+    private final SseEmitter emitter;
+
+    private final BlockingQueue<Message> queue;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile boolean closed;
+
+    private Subscriber(SseEmitter emitter, int capacity) {
+      this.emitter = emitter;
+      this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+  }
+
+  private final ObjectMapper objectMapper;
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+  // guards history and lastSequence, and orders replay against live events
+  private final Object lock = new Object();
+
+  private final Message[] history;
+
+  private long lastSequence;
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  private final ExecutorService sender;
+
+  private final int maxSubscribers;
+
+  private final int bufferSize;
+
+  private final long timeoutMs;
+
+  private final Counter overflows;
+
+  /**
+   * Creates a broadcaster.
+   *
+   * @param objectMapper   mapper used to serialize each event once
+   * @param meterRegistry  registry for the subscriber gauge and overflow counter
+   * @param maxSubscribers the maximum number of concurrent subscribers
+   * @param bufferSize     the number of undelivered events a subscriber may fall behind
+   * @param historySize    the number of past events kept for resuming clients
+   * @param timeoutMs      how long a subscription lasts before the client has to reconnect
+   * @param sendThreads    the number of threads writing events to subscribers
+   */
+  public PatientEventBroadcaster(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+      @Value("${emergencyaid.events.max-subscribers:5000}") int maxSubscribers,
+      @Value("${emergencyaid.events.subscriber-buffer:64}") int bufferSize,
+      @Value("${emergencyaid.events.history-size:1000}") int historySize,
+      @Value("${emergencyaid.events.timeout-ms:1800000}") long timeoutMs,
+      @Value("${emergencyaid.events.send-threads:4}") int sendThreads) {
+    this.objectMapper = objectMapper;
+    this.maxSubscribers = maxSubscribers;
+    this.bufferSize = bufferSize;
+    this.timeoutMs = timeoutMs;
+    this.history = new Message[historySize];
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.sender = Executors.newFixedThreadPool(sendThreads, runnable -> {
+      final Thread thread =
+          new Thread(runnable, "patient-events-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    Gauge.builder("emergencyaid.events.subscribers", subscribers, Set::size)
+        .description("Open patient event streams")
+        .register(meterRegistry);
+    this.overflows = Counter.builder("emergencyaid.events.overflows")
+        .description("Patient event streams closed because the client fell behind")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Opens a stream of patient registrations.
+   *
+   * @param lastEventId the last event the client received, or null for live events only
+   * @return the emitter, or empty if the subscriber limit is reached
+   */
+  public Optional<SseEmitter> subscribe(String lastEventId) {
+    if (subscribers.size() >= maxSubscribers) {
+      return Optional.empty();
+    }
+
+    final SseEmitter emitter = new SseEmitter(timeoutMs);
+    final Subscriber subscriber;
+    synchronized (lock) {
+      // replay and registration under one lock, so no event is missed or sent twice
+      final List<Message> missed = eventsAfter(lastEventId);
+      subscriber = new Subscriber(emitter, bufferSize + missed.size());
+      subscriber.queue.addAll(missed);
+      subscribers.add(subscriber);
+    }
+    emitter.onCompletion(() -> close(subscriber));
+    emitter.onTimeout(() -> close(subscriber));
+    emitter.onError(e -> close(subscriber));
+    schedule(subscriber);
+    return Optional.of(emitter);
+  }
+
+  /**
+   * Sends a registration to all subscribers.
+   *
+   * @param patient the registered patient
+   */
+  public void publish(PatientSummary patient) {
+    final String data;
+    try {
+      data = objectMapper.writeValueAsString(patient);
+    } catch (JsonProcessingException e) {
+      log.error("Unable to serialize patient event", e);
+      return;
+    }
+
+    synchronized (lock) {
+      final long sequence = ++lastSequence;
+      final Message message = new Message(eventId(sequence), REGISTERED_EVENT, data);
+      history[(int) (sequence % history.length)] = message;
+      subscribers.forEach(subscriber -> enqueue(subscriber, message));
+    }
+  }
+
+  /**
+   * Sends a comment to all subscribers, so proxies do not close idle streams and dead
+   * connections are detected.
+   */
+  @Scheduled(fixedDelayString = "${emergencyaid.events.heartbeat-ms:15000}")
+  public void heartbeat() {
+    subscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT_MESSAGE));
+  }
+
+  /**
+   * Returns the events a client that last saw the given event has missed.
+   *
+   * @param lastEventId the client's last event ID, or null
+   * @return the missed events, or a single reset event if they are no longer available
+   */
+  List<Message> eventsAfter(String lastEventId) {
+    synchronized (lock) {
+      if (lastEventId == null || lastEventId.isBlank()) {
+        return List.of();
+      }
+
+      final int separator = lastEventId.lastIndexOf('-');
+      final long sequence;
+      try {
+        sequence = Long.parseLong(lastEventId.substring(separator + 1));
+      } catch (NumberFormatException e) {
+        return List.of(reset());
+      }
+      final long oldest = Math.max(1, lastSequence - history.length + 1);
+      if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))
+          || sequence > lastSequence || sequence + 1 < oldest) {
+        return List.of(reset());
+      }
+
+      final List<Message> missed = new ArrayList<>((int) (lastSequence - sequence));
+      for (long next = sequence + 1; next <= lastSequence; next++) {
+        missed.add(history[(int) (next % history.length)]);
+      }
+      return missed;
+    }
+  }
+
+  int subscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * Completes all open streams on shutdown.
+   */
+  @PreDestroy
+  public void shutdown() {
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    sender.shutdown();
+  }
+
+  private Message reset() {
+    // carries the current ID, so the client resumes from here after reloading
+    return new Message(eventId(lastSequence), RESET_EVENT, "{}");
+  }
+
+  private String eventId(long sequence) {
+    return epoch + "-" + sequence;
+  }
+
+  private void enqueue(Subscriber subscriber, Message message) {
+    if (subscriber.closed) {
+      return;
+    }
+    if (!subscriber.queue.offer(message)) {
+      overflows.increment();
+      log.debug("Closing patient event stream that fell {} events behind", bufferSize);
+      close(subscriber);
+      subscriber.emitter.complete();
+      return;
+    }
+    schedule(subscriber);
+  }
+
+  private void schedule(Subscriber subscriber) {
+    if (subscriber.draining.compareAndSet(false, true)) {
+      sender.execute(() -> drain(subscriber));
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    try {
+      while (!subscriber.closed) {
+        final Message message = subscriber.queue.poll();
+        if (message == null) {
+          break;
+        }
+        subscriber.emitter.send(message.toEvent());
+      }
+    } catch (IOException | IllegalStateException e) {
+      // client went away; the emitter reports the error through its callbacks
+      close(subscriber);
+    } finally {
+      subscriber.draining.set(false);
+    }
+    // an event queued after the last poll but before draining was reset
+    if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+      schedule(subscriber);
+    }
+  }
+
+  private void close(Subscriber subscriber) {
+    subscriber.closed = true;
+    subscribers.remove(subscriber);
+    subscriber.queue.clear();
+  }
+}
@@ -0,0 +1,11 @@
+package com.bytecoders.emergencyaid.events;
+
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+
+/**
+ * Application event published once a new patient has been saved.
+ *
+ * @param patient the registered patient
+ */
+public record PatientRegisteredEvent(PatientSummary patient) {
+}
@@ -0,0 +1,133 @@
+package com.bytecoders.emergencyaid.events;
+
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Relays registrations between instances through PostgreSQL LISTEN/NOTIFY, so a subscriber
+ * connected to any instance sees patients registered on all of them.
+ *
+ * <p>The listener holds one dedicated connection outside the pool, since a pooled connection
+ * would be returned between notifications. Notifications sent while it reconnects are lost; event
+ * IDs are per instance, so clients resume through a reset anyway when they change instance.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "emergencyaid.events.relay", havingValue = "postgres")
+public class PostgresPatientEventRelay {
+
+  static final String CHANNEL = "patient_registered";
+
+  private static final long MAX_BACKOFF_MS = 30_000;
+
+  @Autowired
+  private PatientEventBroadcaster broadcaster;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private DataSourceProperties dataSourceProperties;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${emergencyaid.events.listen-poll-ms:10000}")
+  private int pollMs;
+
+  private volatile boolean running = true;
+
+  private Thread listener;
+
+  /**
+   * Notifies all instances of a registration once its transaction has committed.
+   *
+   * @param event the registration
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPatientRegistered(PatientRegisteredEvent event) {
+    try {
+      jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL,
+          objectMapper.writeValueAsString(event.patient()));
+    } catch (JsonProcessingException e) {
+      log.error("Unable to serialize patient event", e);
+    }
+  }
+
+  @PostConstruct
+  void start() {
+    listener = new Thread(this::listen, "patient-events-listener");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @PreDestroy
+  void stop() {
+    running = false;
+    listener.interrupt();
+  }
+
+  private void listen() {
+    long backoffMs = 1000;
+    while (running) {
+      try (Connection connection = DriverManager.getConnection(
+          dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+          dataSourceProperties.determinePassword())) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+        log.info("Listening for patient events on channel {}", CHANNEL);
+        backoffMs = 1000;
+
+        final PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          final PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+          if (notifications == null) {
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            relay(notification.getParameter());
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn("Patient event listener disconnected, retrying in {} ms: {}", backoffMs,
+            e.getMessage());
+        try {
+          Thread.sleep(backoffMs);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+      }
+    }
+  }
+
+  private void relay(String payload) {
+    try {
+      broadcaster.publish(objectMapper.readValue(payload, PatientSummary.class));
+    } catch (JsonProcessingException e) {
+      log.warn("Ignoring malformed patient event: {}", e.getMessage());
+    }
+  }
+}
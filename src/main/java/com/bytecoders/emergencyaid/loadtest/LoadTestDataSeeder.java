@@ -0,0 +1,106 @@
+package com.bytecoders.emergencyaid.loadtest;
+
+import com.bytecoders.emergencyaid.repository.PatientRepository;
+import com.bytecoders.emergencyaid.repository.UserRepository;
+import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.repository.model.User;
+import com.bytecoders.emergencyaid.util.PasswordUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds an empty database with patients and a responder account for load tests. Only active
+ * with the "loadtest" profile.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements CommandLineRunner {
+
+  private static final int BATCH_SIZE = 500;
+
+  private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert",
+      "Jennifer", "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard",
+      "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen"};
+
+  private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones",
+      "Garcia", "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez",
+      "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"};
+
+  @Autowired
+  private PatientRepository patientRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private PasswordUtils passwordUtils;
+
+  @Value("${emergencyaid.loadtest.patients:10000}")
+  private int patientCount;
+
+  // share of seeded patients linked to a (stubbed) PharmaId account
+  @Value("${emergencyaid.loadtest.pharmaid-ratio:0.5}")
+  private double pharmaIdRatio;
+
+  @Value("${emergencyaid.loadtest.user.email}")
+  private String userEmail;
+
+  @Value("${emergencyaid.loadtest.user.password}")
+  private String userPassword;
+
+  @Override
+  public void run(String... args) {
+    // the user is created last, so a successful login means seeding has finished
+    seedPatients();
+    seedUser();
+  }
+
+  private void seedUser() {
+    if (userRepository.findByEmail(userEmail).isPresent()) {
+      return;
+    }
+    final User user = new User();
+    user.setEmail(userEmail);
+    user.setHashedPassword(passwordUtils.hashPassword(userPassword));
+    userRepository.save(user);
+    log.info("Seeded load test user {}", userEmail);
+  }
+
+  private void seedPatients() {
+    final long existing = patientRepository.count();
+    if (existing > 0) {
+      log.info("Skipping patient seeding, {} patients already exist", existing);
+      return;
+    }
+
+    // fixed seed so every run sees the same name distribution
+    final Random random = new Random(42);
+    final List<Patient> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < patientCount; i++) {
+      final Patient patient = new Patient();
+      patient.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+      patient.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+      patient.setPhoneNumber(String.format("555-%03d-%04d", i / 10_000, i % 10_000));
+      if (random.nextDouble() < pharmaIdRatio) {
+        patient.setPharmaId(new UUID(random.nextLong(), random.nextLong()).toString());
+      }
+      batch.add(patient);
+
+      if (batch.size() == BATCH_SIZE) {
+        patientRepository.saveAll(batch);
+        batch.clear();
+      }
+    }
+    patientRepository.saveAll(batch);
+    log.info("Seeded {} load test patients", patientCount);
+  }
+}
@@ -0,0 +1,59 @@
+package com.bytecoders.emergencyaid.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically checks the Hikari connection acquisition timers and logs a warning, with the
+ * pool's current usage, when the recent maximum wait goes above the configured threshold.
+ * Dashboards and alerts should use the exported hikaricp.* metrics; this makes the same signal
+ * visible in the application log next to the requests that were affected.
+ */
+@Slf4j
+@Component
+public class ConnectionPoolMonitor {
+
+  static final String ACQUIRE_METRIC = "hikaricp.connections.acquire";
+
+  private final MeterRegistry meterRegistry;
+
+  private final long warnThresholdMs;
+
+  public ConnectionPoolMonitor(MeterRegistry meterRegistry,
+      @Value("${emergencyaid.datasource.pool.acquire-warn-threshold-ms:100}")
+      long warnThresholdMs) {
+    this.meterRegistry = meterRegistry;
+    this.warnThresholdMs = warnThresholdMs;
+  }
+
+  /**
+   * Logs a warning for every pool whose recent maximum acquisition time exceeds the threshold.
+   */
+  @Scheduled(fixedDelayString = "${emergencyaid.datasource.pool.check-interval-ms:30000}")
+  public void checkAcquisitionLatency() {
+    for (Timer timer : meterRegistry.find(ACQUIRE_METRIC).timers()) {
+      final double maxMs = timer.max(TimeUnit.MILLISECONDS);
+      if (maxMs > warnThresholdMs) {
+        final String pool = timer.getId().getTag("pool");
+        log.warn("Connection acquisition on pool {} took up to {} ms (threshold {} ms): "
+                + "active={}, idle={}, pending={}, max={}",
+            pool, Math.round(maxMs), warnThresholdMs,
+            gauge("hikaricp.connections.active", pool),
+            gauge("hikaricp.connections.idle", pool),
+            gauge("hikaricp.connections.pending", pool),
+            gauge("hikaricp.connections.max", pool));
+      }
+    }
+  }
+
+  private long gauge(String name, String pool) {
+    final Gauge gauge = meterRegistry.find(name).tag("pool", pool).gauge();
+    return gauge == null ? -1 : Math.round(gauge.value());
+  }
+}
@@ -0,0 +1,61 @@
+package com.bytecoders.emergencyaid.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records a timer for every outbound PharmaId call, tagged by endpoint and response status.
+ * The timer stops once response headers arrive, so streamed bodies are not included.
+ */
+@Component
+public class PharmaidMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+  public static final String METRIC_NAME = "emergencyaid.pharmaid.requests";
+
+  // PharmaId user IDs in request paths; collapsed so the endpoint tag stays low-cardinality
+  private static final Pattern UUID_SEGMENT = Pattern.compile(
+      "/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+  private final MeterRegistry meterRegistry;
+
+  public PharmaidMetricsInterceptor(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public ClientHttpResponse intercept(
+      HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    final Timer.Sample sample = Timer.start(meterRegistry);
+    String status = "IO_ERROR";
+    try {
+      final ClientHttpResponse response = execution.execute(request, body);
+      status = String.valueOf(response.getStatusCode().value());
+      return response;
+    } finally {
+      sample.stop(Timer.builder(METRIC_NAME)
+          .description("Outbound PharmaId API calls")
+          .tag("endpoint", endpointOf(request))
+          .tag("method", request.getMethod().name())
+          .tag("status", status)
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Normalizes a request path into an endpoint tag, eg "/users/{id}/prescriptions".
+   *
+   * @param request the outbound request
+   * @return the request path with UUID segments replaced by "{id}"
+   */
+  public static String endpointOf(HttpRequest request) {
+    final String path = request.getURI().getPath();
+    return UUID_SEGMENT.matcher(path == null ? "" : path).replaceAll("/{id}");
+  }
+}
@@ -0,0 +1,26 @@
+package com.bytecoders.emergencyaid.monitoring;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tracing exporters beyond the OTLP exporter Spring Boot configures from
+ * {@code management.otlp.tracing.endpoint}.
+ */
+@Configuration
+public class TracingConfig {
+
+  /**
+   * Writes finished spans to the application log, for local runs without a collector.
+   *
+   * @return a span exporter that logs each span
+   */
+  @Bean
+  @ConditionalOnProperty(name = "emergencyaid.tracing.log-spans", havingValue = "true")
+  public SpanExporter loggingSpanExporter() {
+    return LoggingSpanExporter.create();
+  }
+}
@@ -0,0 +1,202 @@
+package com.bytecoders.emergencyaid.priority;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Partitions a connection pool between priorities. Critical requests may use every connection;
+ * normal and bulk requests together leave {@code criticalReserved} connections free for them,
+ * and bulk requests hold at most {@code bulkLimit}. While {@code criticalQueueThreshold} or more
+ * critical requests are waiting for the pool, bulk requests wait too. The lanes are sized from
+ * the pool itself, see {@link #sizeTo}.
+ */
+public class ConnectionLanes {
+
+  private final int criticalReserved;
+
+  private final int bulkMax;
+
+  private final int criticalQueueThreshold;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition changed = lock.newCondition();
+
+  private int poolSize;
+
+  private int sharedLimit;
+
+  private int bulkLimit;
+
+  private int sharedInUse;
+
+  private int bulkInUse;
+
+  private int criticalInUse;
+
+  private int criticalWaitingCount;
+
+  /**
+   * Creates lanes, to be sized by {@link #sizeTo} before use.
+   *
+   * @param criticalReserved       connections only critical requests may use
+   * @param bulkMax                most connections bulk requests may hold
+   * @param criticalQueueThreshold waiting critical requests at which bulk requests pause
+   */
+  public ConnectionLanes(int criticalReserved, int bulkMax, int criticalQueueThreshold) {
+    if (criticalReserved < 0 || bulkMax < 1 || criticalQueueThreshold < 1) {
+      throw new IllegalArgumentException("Critical connections cannot be negative, and bulk "
+          + "requests must be allowed one");
+    }
+    this.criticalReserved = criticalReserved;
+    this.bulkMax = bulkMax;
+    this.criticalQueueThreshold = criticalQueueThreshold;
+  }
+
+  /**
+   * Sizes the lanes for the pool they partition.
+   *
+   * @param poolSize the pool's maximum size
+   * @throws IllegalArgumentException if the critical connections take the whole pool
+   */
+  public void sizeTo(int poolSize) {
+    if (criticalReserved >= poolSize) {
+      throw new IllegalArgumentException("Critical connections (" + criticalReserved
+          + ") must leave at least one of the pool's " + poolSize + " for other requests");
+    }
+    lock.lock();
+    try {
+      this.poolSize = poolSize;
+      sharedLimit = poolSize - criticalReserved;
+      bulkLimit = Math.min(bulkMax, sharedLimit);
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits for the priority's lane to admit one more connection. Critical requests are always
+   * admitted; one that finds every connection of the pool held will block in the pool, so it is
+   * counted as waiting until {@link #criticalWaitEnded}.
+   *
+   * @param priority     the requesting priority
+   * @param timeoutNanos how long to wait
+   * @return whether a critical request was counted as waiting for the pool
+   * @throws SQLTransientConnectionException if the lane stayed full for the timeout
+   */
+  public boolean acquire(Priority priority, long timeoutNanos)
+      throws SQLTransientConnectionException {
+    long remaining = timeoutNanos;
+    lock.lock();
+    try {
+      if (sharedLimit == 0) {
+        throw new IllegalStateException("Connection lanes are not sized to a pool");
+      }
+      if (priority == Priority.CRITICAL) {
+        criticalInUse++;
+        final boolean waiting = sharedInUse + criticalInUse > poolSize;
+        if (waiting) {
+          criticalWaitingCount++;
+        }
+        return waiting;
+      }
+      while (!admits(priority)) {
+        if (remaining <= 0) {
+          throw new SQLTransientConnectionException(priority + " connection lane is full ("
+              + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms)");
+        }
+        remaining = changed.awaitNanos(remaining);
+      }
+      sharedInUse++;
+      if (priority == Priority.BULK) {
+        bulkInUse++;
+      }
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted waiting for a connection", e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns a connection admitted by {@link #acquire} to its lane.
+   *
+   * @param priority the priority it was acquired with
+   */
+  public void release(Priority priority) {
+    lock.lock();
+    try {
+      if (priority == Priority.CRITICAL) {
+        criticalInUse--;
+        return;
+      }
+      sharedInUse--;
+      if (priority == Priority.BULK) {
+        bulkInUse--;
+      }
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Marks a critical request counted as waiting by {@link #acquire} as no longer waiting, with or
+   * without a connection.
+   */
+  public void criticalWaitEnded() {
+    lock.lock();
+    try {
+      criticalWaitingCount--;
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Connections held by a lane.
+   *
+   * @param priority the lane
+   * @return the number of connections held; for normal, including bulk
+   */
+  public int inUse(Priority priority) {
+    lock.lock();
+    try {
+      return switch (priority) {
+        case CRITICAL -> criticalInUse;
+        case BULK -> bulkInUse;
+        default -> sharedInUse;
+      };
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Critical requests currently waiting for the pool.
+   *
+   * @return the number of waiting requests
+   */
+  public int criticalWaiting() {
+    lock.lock();
+    try {
+      return criticalWaitingCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean admits(Priority priority) {
+    if (sharedInUse >= sharedLimit) {
+      return false;
+    }
+    return priority != Priority.BULK
+        || (bulkInUse < bulkLimit && criticalWaitingCount < criticalQueueThreshold);
+  }
+}
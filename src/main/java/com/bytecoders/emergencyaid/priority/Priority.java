@@ -0,0 +1,63 @@
+package com.bytecoders.emergencyaid.priority;
+
+/**
+ * Priority class of the work on the current thread. Database connections are handed out by
+ * priority, see {@link ConnectionLanes}; threads that never set one are {@link #NORMAL}.
+ */
+public enum Priority {
+
+  /**
+   * Latency-critical requests, eg a clinician viewing prescriptions. May use every connection.
+   */
+  CRITICAL,
+
+  /**
+   * Everything not classified otherwise.
+   */
+  NORMAL,
+
+  /**
+   * Large reads such as listing all patients. Run on the bulk executor, use few connections and
+   * wait while critical requests are queueing.
+   */
+  BULK;
+
+  private static final ThreadLocal<Priority> THREAD_PRIORITY = new ThreadLocal<>();
+
+  /**
+   * Priority of the current thread.
+   *
+   * @return the priority, {@link #NORMAL} if none was set
+   */
+  public static Priority current() {
+    final Priority priority = THREAD_PRIORITY.get();
+    return priority == null ? NORMAL : priority;
+  }
+
+  /**
+   * Sets the current thread's priority until the returned scope is closed.
+   *
+   * @return a scope restoring the previous priority
+   */
+  public Scope enter() {
+    final Priority previous = THREAD_PRIORITY.get();
+    THREAD_PRIORITY.set(this);
+    return () -> {
+      if (previous == null) {
+        THREAD_PRIORITY.remove();
+      } else {
+        THREAD_PRIORITY.set(previous);
+      }
+    };
+  }
+
+  /**
+   * Restores the previous priority when closed.
+   */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+}
@@ -0,0 +1,101 @@
+package com.bytecoders.emergencyaid.priority;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Hands out connections from the wrapped pool through {@link ConnectionLanes}, by the
+ * {@link Priority} of the requesting thread. A connection returns to its lane when closed.
+ */
+public class PriorityDataSource extends DelegatingDataSource {
+
+  private final ConnectionLanes lanes;
+
+  private final long timeoutNanos;
+
+  /**
+   * Wraps a pool.
+   *
+   * @param pool         the connection pool
+   * @param lanes        the pool's lanes
+   * @param timeoutNanos how long to wait for a lane, as for the pool itself
+   */
+  public PriorityDataSource(DataSource pool, ConnectionLanes lanes, long timeoutNanos) {
+    super(pool);
+    this.lanes = lanes;
+    this.timeoutNanos = timeoutNanos;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return getConnection(() -> obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return getConnection(() -> obtainTargetDataSource().getConnection(username, password));
+  }
+
+  // the proxy only implements java.sql.Connection, which its own class loader always defines,
+  // whatever context class loader the calling thread has
+  @SuppressWarnings("PMD.UseProperClassLoader")
+  private Connection getConnection(ConnectionSupplier pool) throws SQLException {
+    final Priority priority = Priority.current();
+    final boolean criticalWaiting = lanes.acquire(priority, timeoutNanos);
+    try {
+      final Connection connection = pool.get();
+      return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+          new Class<?>[]{Connection.class}, new LaneReleasingHandler(connection, priority));
+    } catch (SQLException | RuntimeException e) {
+      lanes.release(priority);
+      throw e;
+    } finally {
+      if (criticalWaiting) {
+        lanes.criticalWaitEnded();
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface ConnectionSupplier {
+
+    Connection get() throws SQLException;
+  }
+
+  /**
+   * Returns the connection to its lane on the first close.
+   */
+  private final class LaneReleasingHandler implements InvocationHandler {
+
+    private final Connection target;
+
+    private final Priority priority;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private LaneReleasingHandler(Connection target, Priority priority) {
+      this.target = target;
+      this.priority = priority;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      } finally {
+        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+          lanes.release(priority);
+        }
+      }
+    }
+  }
+}
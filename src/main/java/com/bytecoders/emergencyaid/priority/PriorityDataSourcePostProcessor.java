@@ -0,0 +1,37 @@
+package com.bytecoders.emergencyaid.priority;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+/**
+ * Wraps the writable Hikari pool in a {@link PriorityDataSource} and sizes its lanes to the
+ * pool's maximum size. Read-only pools, ie the replica, are left alone. Runs before other
+ * post-processors so it sees the pool itself rather than an instrumented proxy, which then wraps
+ * this one.
+ */
+public class PriorityDataSourcePostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+  private final ConnectionLanes lanes;
+
+  public PriorityDataSourcePostProcessor(ConnectionLanes lanes) {
+    this.lanes = lanes;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof HikariDataSource pool && !pool.isReadOnly()) {
+      lanes.sizeTo(pool.getMaximumPoolSize());
+      return new PriorityDataSource(pool, lanes,
+          TimeUnit.MILLISECONDS.toNanos(pool.getConnectionTimeout()));
+    }
+    return bean;
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+}
@@ -0,0 +1,94 @@
+package com.bytecoders.emergencyaid.priority;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+/**
+ * Runs bulk requests on their own small executor, at {@link Priority#BULK}, so they hold neither
+ * Tomcat threads nor more than their share of connections. When the executor's queue is full
+ * new bulk requests are rejected with 503, see
+ * {@link com.bytecoders.emergencyaid.GlobalExceptionHandler}.
+ */
+@Component
+public class PriorityLanes {
+
+  private final ThreadPoolTaskExecutor bulkExecutor;
+
+  private final long bulkTimeoutMs;
+
+  /**
+   * Creates the bulk executor and registers lane metrics.
+   *
+   * @param bulkThreads     threads running bulk requests
+   * @param bulkQueue       bulk requests that may wait for a thread
+   * @param bulkTimeoutMs   time after which a bulk request is answered with 503
+   * @param connectionLanes the connection lanes, absent if disabled
+   * @param meterRegistry   registry for lane metrics
+   */
+  public PriorityLanes(
+      @Value("${emergencyaid.priority.bulk.threads:2}") int bulkThreads,
+      @Value("${emergencyaid.priority.bulk.queue:20}") int bulkQueue,
+      @Value("${emergencyaid.priority.bulk.timeout-ms:30000}") long bulkTimeoutMs,
+      ObjectProvider<ConnectionLanes> connectionLanes, MeterRegistry meterRegistry) {
+    this.bulkTimeoutMs = bulkTimeoutMs;
+    this.bulkExecutor = new ThreadPoolTaskExecutor();
+    bulkExecutor.setThreadNamePrefix("bulk-");
+    bulkExecutor.setCorePoolSize(bulkThreads);
+    bulkExecutor.setMaxPoolSize(bulkThreads);
+    bulkExecutor.setQueueCapacity(bulkQueue);
+    // keep trace context across the hand-off, then run at bulk priority
+    final ContextPropagatingTaskDecorator propagating = new ContextPropagatingTaskDecorator();
+    bulkExecutor.setTaskDecorator(task -> {
+      final Runnable decorated = propagating.decorate(task);
+      return () -> {
+        try (Priority.Scope ignored = Priority.BULK.enter()) {
+          decorated.run();
+        }
+      };
+    });
+    bulkExecutor.initialize();
+
+    Gauge.builder("emergencyaid.priority.bulk.queued", bulkExecutor,
+            executor -> executor.getThreadPoolExecutor().getQueue().size())
+        .description("Bulk requests waiting for a thread")
+        .register(meterRegistry);
+    connectionLanes.ifAvailable(lanes -> {
+      for (Priority priority : new Priority[]{Priority.NORMAL, Priority.BULK}) {
+        Gauge.builder("emergencyaid.priority.connections.in-use", lanes,
+                l -> l.inUse(priority))
+            .description("Primary pool connections held, by lane; normal includes bulk")
+            .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry);
+      }
+      Gauge.builder("emergencyaid.priority.connections.critical-waiting", lanes,
+              ConnectionLanes::criticalWaiting)
+          .description("Critical requests waiting for a primary pool connection")
+          .register(meterRegistry);
+    });
+  }
+
+  /**
+   * Wraps a bulk request's work to run on the bulk executor.
+   *
+   * @param work the request's work
+   * @param <T>  the result type
+   * @return the async task to return from the controller
+   */
+  public <T> WebAsyncTask<T> bulk(Callable<T> work) {
+    return new WebAsyncTask<>(bulkTimeoutMs, bulkExecutor, work);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    bulkExecutor.shutdown();
+  }
+}
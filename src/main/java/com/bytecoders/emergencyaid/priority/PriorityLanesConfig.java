@@ -0,0 +1,39 @@
+package com.bytecoders.emergencyaid.priority;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Partitions the primary connection pool by {@link Priority} when
+ * {@code emergencyaid.priority.connections.enabled} is set, see {@link ConnectionLanes}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "emergencyaid.priority.connections.enabled", havingValue = "true",
+    matchIfMissing = true)
+public class PriorityLanesConfig {
+
+  /**
+   * Lanes over the primary pool, sized by the post-processor once the pool exists. Static, like
+   * the post-processor that needs them, so they are created before any data source.
+   *
+   * @param environment the environment, for the lane limits
+   * @return the lanes
+   */
+  @Bean
+  public static ConnectionLanes connectionLanes(Environment environment) {
+    return new ConnectionLanes(
+        environment.getProperty("emergencyaid.priority.connections.critical-reserved",
+            Integer.class, 2),
+        environment.getProperty("emergencyaid.priority.connections.bulk-max", Integer.class, 1),
+        environment.getProperty("emergencyaid.priority.connections.critical-queue-threshold",
+            Integer.class, 1));
+  }
+
+  @Bean
+  public static PriorityDataSourcePostProcessor priorityDataSourcePostProcessor(
+      ConnectionLanes connectionLanes) {
+    return new PriorityDataSourcePostProcessor(connectionLanes);
+  }
+}
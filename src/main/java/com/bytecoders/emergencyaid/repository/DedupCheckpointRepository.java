@@ -0,0 +1,17 @@
+package com.bytecoders.emergencyaid.repository;
+
+import com.bytecoders.emergencyaid.repository.model.DedupCheckpoint;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+/**
+ * JPA repository for de-duplication job checkpoints.
+ */
+public interface DedupCheckpointRepository extends JpaRepository<DedupCheckpoint, String> {
+
+  // locks the checkpoint row, so instances running the same job take turns chunk by chunk
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<DedupCheckpoint> findForUpdateByJobName(String jobName);
+}
@@ -0,0 +1,17 @@
+package com.bytecoders.emergencyaid.repository;
+
+import com.bytecoders.emergencyaid.repository.model.MergeSuggestion;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * JPA repository for patient merge suggestions.
+ */
+public interface MergeSuggestionRepository extends JpaRepository<MergeSuggestion, UUID> {
+
+  List<MergeSuggestion> findAllByOrderByScoreDesc(Pageable pageable);
+
+  boolean existsByPatientIdAndDuplicatePatientId(UUID patientId, UUID duplicatePatientId);
+}
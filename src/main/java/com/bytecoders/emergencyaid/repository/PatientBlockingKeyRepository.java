@@ -0,0 +1,15 @@
+package com.bytecoders.emergencyaid.repository;
+
+import com.bytecoders.emergencyaid.repository.model.PatientBlockingKey;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * JPA repository for patient de-duplication blocking keys.
+ */
+public interface PatientBlockingKeyRepository
+    extends JpaRepository<PatientBlockingKey, PatientBlockingKey.Key> {
+
+  List<PatientBlockingKey> findByBlockKeyIn(Collection<String> blockKeys);
+}
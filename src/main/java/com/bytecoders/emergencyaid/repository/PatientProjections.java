@@ -0,0 +1,27 @@
+package com.bytecoders.emergencyaid.repository;
+
+import com.bytecoders.emergencyaid.repository.model.PatientField;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Patient queries whose projection is chosen at runtime, for sparse fieldsets. Part of
+ * {@link PatientRepository}, implemented by {@link PatientProjectionsImpl}.
+ */
+public interface PatientProjections {
+
+  /**
+   * Selects patient summaries with only some of their columns. The ID and version are always
+   * selected, for ETags; the other unselected fields are null.
+   *
+   * @param fields     the fields to select
+   * @param where      the JPQL condition on {@code Patient p}, one of the {@code BY_} clauses of
+   *                   {@link PatientRepository}
+   * @param parameters the condition's named parameters
+   * @return the matching summaries
+   */
+  List<PatientSummary> findSummaries(Set<PatientField> fields, String where,
+      Map<String, ?> parameters);
+}
@@ -0,0 +1,50 @@
+package com.bytecoders.emergencyaid.repository;
+
+import com.bytecoders.emergencyaid.repository.model.PatientField;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds the JPQL select list from the requested fields. There are few enough combinations that
+ * each one's query plan stays in Hibernate's plan cache.
+ */
+public class PatientProjectionsImpl implements PatientProjections {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<PatientSummary> findSummaries(Set<PatientField> fields, String where,
+      Map<String, ?> parameters) {
+    final StringBuilder jpql = new StringBuilder("SELECT p.id, p.version");
+    for (PatientField field : fields) {
+      if (field != PatientField.ID) {
+        jpql.append(", p.").append(field.getProperty());
+      }
+    }
+    jpql.append(" FROM Patient p ").append(where);
+
+    final TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+    parameters.forEach(query::setParameter);
+    return query.getResultList().stream().map(row -> summary(fields, row)).toList();
+  }
+
+  private static PatientSummary summary(Set<PatientField> fields, Object[] row) {
+    final String[] values = new String[PatientField.values().length];
+    int column = 2;
+    for (PatientField field : fields) {
+      if (field != PatientField.ID) {
+        values[field.ordinal()] = (String) row[column++];
+      }
+    }
+    return new PatientSummary((UUID) row[0], values[PatientField.FIRST_NAME.ordinal()],
+        values[PatientField.LAST_NAME.ordinal()], values[PatientField.PHONE_NUMBER.ordinal()],
+        values[PatientField.PHARMA_ID.ordinal()], (Long) row[1]);
+  }
+}
@@ -1,32 +1,70 @@
 package com.bytecoders.emergencyaid.repository;
 
 import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 /**
- * JPA patient repository.
+ * JPA patient repository. Search and listing queries select {@link PatientSummary} projections
+ * rather than managed entities; the {@code BY_} conditions are shared with the sparse
+ * projections of {@link PatientProjections}.
  */
-public interface PatientRepository extends JpaRepository<Patient, UUID> {
+public interface PatientRepository extends JpaRepository<Patient, UUID>, PatientProjections {
 
-  Optional<Patient> findByPhoneNumber(String phoneNumber);
+  String SUMMARY = "SELECT new com.bytecoders.emergencyaid.repository.model.PatientSummary("
+      + "p.id, p.firstName, p.lastName, p.phoneNumber, p.pharmaId, p.version) FROM Patient p ";
 
-  List<Patient> findByFirstNameIgnoreCase(String firstName);
-  
-  List<Patient> findByLastNameIgnoreCase(String lastName);
+  String BY_ID = "WHERE p.id = :id";
 
-  // find by first and last name, ignore case
-  @Query("""
-      SELECT p
-      FROM Patient p
+  String BY_PHONE_NUMBER = "WHERE p.phoneNumber = :phoneNumber";
+
+  // LOWER() rather than the derived UPPER() so the functional name indexes are used
+  String BY_FIRST_NAME = "WHERE LOWER(p.firstName) = LOWER(:firstName)";
+
+  String BY_LAST_NAME = "WHERE LOWER(p.lastName) = LOWER(:lastName)";
+
+  String BY_FULL_NAME = """
       WHERE
         LOWER(p.firstName) = LOWER(:firstName)
         AND LOWER(p.lastName) = LOWER(:lastName)
-      """)
-  List<Patient> findByFullNameIgnoreCase(
+      """;
+
+  @Query(SUMMARY)
+  List<PatientSummary> findAllSummaries();
+
+  @Query(SUMMARY + BY_ID)
+  Optional<PatientSummary> findSummaryById(@Param("id") UUID id);
+
+  @Query(SUMMARY + "WHERE p.id IN :ids")
+  List<PatientSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+  // keyset pagination in primary key order, for jobs that scan the whole table in chunks
+  @Query(SUMMARY + "WHERE p.id > :after ORDER BY p.id")
+  List<PatientSummary> findSummariesAfter(@Param("after") UUID after, Pageable pageable);
+
+  // patients the de-duplication job has not processed yet, ie without blocking keys
+  @Query(SUMMARY + "WHERE NOT EXISTS (SELECT k FROM PatientBlockingKey k WHERE k.patientId = p.id)"
+      + " ORDER BY p.id")
+  List<PatientSummary> findUnprocessedSummaries(Pageable pageable);
+
+  @Query(SUMMARY + BY_PHONE_NUMBER)
+  Optional<PatientSummary> findByPhoneNumber(@Param("phoneNumber") String phoneNumber);
+
+  @Query(SUMMARY + BY_FIRST_NAME)
+  List<PatientSummary> findByFirstNameIgnoreCase(@Param("firstName") String firstName);
+
+  @Query(SUMMARY + BY_LAST_NAME)
+  List<PatientSummary> findByLastNameIgnoreCase(@Param("lastName") String lastName);
+
+  // find by first and last name, ignore case
+  @Query(SUMMARY + BY_FULL_NAME)
+  List<PatientSummary> findByFullNameIgnoreCase(
       @Param("firstName") String firstName, @Param("lastName") String lastName);
-}
\ No newline at end of file
+}
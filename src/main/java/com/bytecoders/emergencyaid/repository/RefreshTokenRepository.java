@@ -0,0 +1,29 @@
+package com.bytecoders.emergencyaid.repository;
+
+import com.bytecoders.emergencyaid.repository.model.RefreshToken;
+import java.time.Instant;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * JPA refresh token repository.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+  // conditional, so of two concurrent exchanges of the same token only one succeeds
+  @Modifying
+  @Query("UPDATE RefreshToken t SET t.usedAt = :usedAt "
+      + "WHERE t.tokenHash = :tokenHash AND t.usedAt IS NULL")
+  int markUsed(@Param("tokenHash") String tokenHash, @Param("usedAt") Instant usedAt);
+
+  @Modifying
+  @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+  int deleteFamily(@Param("familyId") UUID familyId);
+
+  @Modifying
+  @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+  int deleteExpired(@Param("now") Instant now);
+}
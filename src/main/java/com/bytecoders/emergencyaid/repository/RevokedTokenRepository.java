@@ -0,0 +1,25 @@
+package com.bytecoders.emergencyaid.repository;
+
+import com.bytecoders.emergencyaid.repository.model.RevokedToken;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * JPA revoked token repository.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+  @Query("SELECT t.jti FROM RevokedToken t WHERE t.expiresAt > :now")
+  List<String> findUnexpiredIds(@Param("now") Instant now);
+
+  @Query("SELECT t.jti FROM RevokedToken t WHERE t.revokedAt > :since")
+  List<String> findIdsRevokedAfter(@Param("since") Instant since);
+
+  @Modifying
+  @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+  int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,30 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Data;
+
+/**
+ * Model class to describe the "dedup_checkpoints" table: one row per de-duplication job, locked
+ * while a chunk is processed so runs on different instances do not overlap.
+ */
+@Data
+@Entity
+@Table(name = "dedup_checkpoints")
+public class DedupCheckpoint {
+
+  @Id
+  @Column(name = "job_name", length = 64)
+  private String jobName;
+
+  // last patient processed, for monitoring; null until the first chunk is processed
+  @Column(name = "last_patient_id", columnDefinition = "UUID")
+  private UUID lastPatientId;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+}
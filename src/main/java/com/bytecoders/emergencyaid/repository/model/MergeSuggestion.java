@@ -0,0 +1,37 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Data;
+
+/**
+ * Model class to describe the "patient_merge_suggestions" table: a pair of patients the
+ * de-duplication job considers likely to be the same person.
+ */
+@Data
+@Entity
+@Table(name = "patient_merge_suggestions")
+public class MergeSuggestion {
+
+  @Id
+  @UuidPrimaryKey
+  @Column(name = "suggestion_id", columnDefinition = "UUID")
+  private UUID id;
+
+  // the earlier registration
+  @Column(name = "patient_id", columnDefinition = "UUID", nullable = false)
+  private UUID patientId;
+
+  @Column(name = "duplicate_patient_id", columnDefinition = "UUID", nullable = false)
+  private UUID duplicatePatientId;
+
+  @Column(name = "score", nullable = false)
+  private double score;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+}
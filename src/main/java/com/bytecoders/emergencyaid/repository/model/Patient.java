@@ -1,16 +1,17 @@
 package com.bytecoders.emergencyaid.repository.model;
 
 import com.bytecoders.emergencyaid.util.QueryValidator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import java.util.UUID;
 import lombok.Data;
-import org.hibernate.annotations.UuidGenerator;
 
 /**
  * Model class to describe the "patients" table.
@@ -21,7 +22,7 @@ import org.hibernate.annotations.UuidGenerator;
 public class Patient {
 
   @Id
-  @UuidGenerator
+  @UuidPrimaryKey
   @JsonProperty
   @Column(name = "patient_id", columnDefinition = "UUID")
   private UUID id;
@@ -34,7 +35,7 @@ public class Patient {
   @NotBlank
   private String lastName;
 
-  @Column(name = "phone_number", nullable = false)
+  @Column(name = "phone_number", nullable = false, unique = true)
   @Pattern(regexp = QueryValidator.PHONE_NUMBER_REGEX,
       message = "Phone number must be 10 digits with dash separators")
   private String phoneNumber;
@@ -42,4 +43,9 @@ public class Patient {
   @Column(name = "patient_pharma_id")
   @JsonProperty
   private String pharmaId;
+
+  @Version
+  @JsonIgnore
+  @Column(name = "version", nullable = false)
+  private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Model class to describe the "patient_blocking_keys" table: the de-duplication blocks a
+ * processed patient belongs to.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(PatientBlockingKey.Key.class)
+@Table(name = "patient_blocking_keys")
+public class PatientBlockingKey implements Persistable<PatientBlockingKey.Key> {
+
+  @Id
+  @Column(name = "block_key", length = 64)
+  private String blockKey;
+
+  @Id
+  @Column(name = "patient_id", columnDefinition = "UUID")
+  private UUID patientId;
+
+  @Override
+  public Key getId() {
+    return new Key(blockKey, patientId);
+  }
+
+  // keys are only ever inserted, so saveAll() can skip the lookup merge() would do
+  @Override
+  public boolean isNew() {
+    return true;
+  }
+
+  /**
+   * Composite primary key of {@link PatientBlockingKey}.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String blockKey;
+    private UUID patientId;
+  }
+}
@@ -0,0 +1,67 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Fields of a {@link PatientSummary} that a client can select with {@code fields=}. Each name is
+ * both the JSON property and the {@link Patient} attribute, so a selection narrows the SQL
+ * projection as well as the response.
+ */
+public enum PatientField {
+
+  ID("id", PatientSummary::id),
+  FIRST_NAME("firstName", PatientSummary::firstName),
+  LAST_NAME("lastName", PatientSummary::lastName),
+  PHONE_NUMBER("phoneNumber", PatientSummary::phoneNumber),
+  PHARMA_ID("pharmaId", PatientSummary::pharmaId);
+
+  public static final Set<PatientField> ALL =
+      Collections.unmodifiableSet(EnumSet.allOf(PatientField.class));
+
+  private final String property;
+
+  private final Function<PatientSummary, Object> getter;
+
+  PatientField(String property, Function<PatientSummary, Object> getter) {
+    this.property = property;
+    this.getter = getter;
+  }
+
+  public String getProperty() {
+    return property;
+  }
+
+  public Object get(PatientSummary patient) {
+    return getter.apply(patient);
+  }
+
+  /**
+   * Parses a {@code fields=} parameter, eg {@code id,firstName,lastName}.
+   *
+   * @param fields comma-separated property names, or null or blank for all fields
+   * @return the selected fields, in declaration order
+   * @throws IllegalArgumentException if a name is not a patient field
+   */
+  public static Set<PatientField> parse(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return ALL;
+    }
+    final Set<PatientField> selected = EnumSet.noneOf(PatientField.class);
+    for (String name : fields.split(",")) {
+      selected.add(fromProperty(name.trim()));
+    }
+    return selected;
+  }
+
+  private static PatientField fromProperty(String property) {
+    for (PatientField field : values()) {
+      if (field.property.equals(property)) {
+        return field;
+      }
+    }
+    throw new IllegalArgumentException("Unknown patient field: " + property);
+  }
+}
@@ -0,0 +1,30 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a {@link Patient} with the columns the API returns. Serializes to the
+ * same JSON as the entity, without loading managed entities into the persistence context.
+ *
+ * @param id          the patient ID
+ * @param firstName   the patient's first name
+ * @param lastName    the patient's last name
+ * @param phoneNumber the patient's phone number
+ * @param pharmaId    the patient's PharmaId account ID, if any
+ * @param version     the patient's entity version, used for ETags and not serialized
+ */
+public record PatientSummary(UUID id, String firstName, String lastName, String phoneNumber,
+    String pharmaId, @JsonIgnore Long version) {
+
+  /**
+   * Creates the summary of a loaded patient.
+   *
+   * @param patient the patient
+   * @return the patient's summary
+   */
+  public static PatientSummary of(Patient patient) {
+    return new PatientSummary(patient.getId(), patient.getFirstName(), patient.getLastName(),
+        patient.getPhoneNumber(), patient.getPharmaId(), patient.getVersion());
+  }
+}
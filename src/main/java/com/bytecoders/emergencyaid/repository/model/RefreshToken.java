@@ -0,0 +1,48 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Model class to describe the "refresh_tokens" table: the HMAC of an issued refresh token.
+ */
+@Data
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken implements Persistable<String> {
+
+  // unpadded base64url HMAC-SHA256 of the token
+  @Id
+  @Column(name = "token_hash", length = 43)
+  private String tokenHash;
+
+  @Column(name = "user_id", columnDefinition = "UUID", nullable = false)
+  private UUID userId;
+
+  // all tokens rotated from the same login
+  @Column(name = "family_id", columnDefinition = "UUID", nullable = false)
+  private UUID familyId;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  @Column(name = "used_at")
+  private Instant usedAt;
+
+  @Override
+  public String getId() {
+    return tokenHash;
+  }
+
+  // tokens are only inserted through save(); updates go through the repository's queries
+  @Override
+  public boolean isNew() {
+    return true;
+  }
+}
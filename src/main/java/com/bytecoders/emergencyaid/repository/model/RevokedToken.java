@@ -0,0 +1,39 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Model class to describe the "revoked_tokens" table: the ID of a JWT revoked before expiry.
+ */
+@Data
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken implements Persistable<String> {
+
+  @Id
+  @Column(name = "jti", length = 36)
+  private String jti;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  @Column(name = "revoked_at", nullable = false)
+  private Instant revokedAt;
+
+  @Override
+  public String getId() {
+    return jti;
+  }
+
+  // revocations are only inserted; a second revocation of the same token fails the insert
+  @Override
+  public boolean isNew() {
+    return true;
+  }
+}
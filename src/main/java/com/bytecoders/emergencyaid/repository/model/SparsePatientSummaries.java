@@ -0,0 +1,48 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Patient summaries serialized with only the selected fields, as a JSON array like a
+ * {@code List<PatientSummary>}. Unselected fields are left out rather than written as null.
+ *
+ * @param patients the summaries, as selected by the sparse projection
+ * @param fields   the fields to write
+ */
+@JsonSerialize(using = SparsePatientSummaries.Serializer.class)
+public record SparsePatientSummaries(List<PatientSummary> patients, Set<PatientField> fields) {
+
+  /**
+   * Writes the selected fields straight from the summaries, without a bean serializer or
+   * per-patient maps.
+   */
+  public static class Serializer extends StdSerializer<SparsePatientSummaries> {
+
+    private static final long serialVersionUID = 1L;
+
+    public Serializer() {
+      super(SparsePatientSummaries.class);
+    }
+
+    @Override
+    public void serialize(SparsePatientSummaries value, JsonGenerator gen,
+        SerializerProvider provider) throws IOException {
+      gen.writeStartArray(value, value.patients().size());
+      for (PatientSummary patient : value.patients()) {
+        gen.writeStartObject(patient);
+        for (PatientField field : value.fields()) {
+          // the provider writes UUIDs as strings in JSON and as binary in CBOR and Smile
+          provider.defaultSerializeField(field.getProperty(), field.get(patient), gen);
+        }
+        gen.writeEndObject();
+      }
+      gen.writeEndArray();
+    }
+  }
+}
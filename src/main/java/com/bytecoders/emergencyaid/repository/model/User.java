@@ -8,7 +8,6 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.util.UUID;
 import lombok.Data;
-import org.hibernate.annotations.UuidGenerator;
 
 /**
  * Model class to describe the "users" table.
@@ -19,7 +18,7 @@ import org.hibernate.annotations.UuidGenerator;
 public class User {
 
   @Id
-  @UuidGenerator
+  @UuidPrimaryKey
   @JsonProperty
   @Column(name = "user_id", columnDefinition = "UUID")
   private UUID id;
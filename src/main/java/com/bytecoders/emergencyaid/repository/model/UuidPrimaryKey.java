@@ -0,0 +1,17 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates UUID primary keys, random (version 4) or time-ordered (version 7) depending on the
+ * {@value UuidPrimaryKeyGenerator#VERSION_SETTING} Hibernate setting.
+ */
+@IdGeneratorType(UuidPrimaryKeyGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidPrimaryKey {
+}
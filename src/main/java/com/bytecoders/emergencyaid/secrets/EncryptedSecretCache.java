@@ -0,0 +1,158 @@
+package com.bytecoders.emergencyaid.secrets;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Local cache of fetched secrets, encrypted with AES-GCM, so a restart within the TTL does not
+ * call Secret Manager again. The set of secret names is authenticated along with the content, so
+ * a cache written for different references is never used.
+ */
+public class EncryptedSecretCache {
+
+  private static final String CIPHER = "AES/GCM/NoPadding";
+
+  private static final int IV_BYTES = 12;
+
+  private static final int TAG_BITS = 128;
+
+  // secret names cannot start with a dot
+  private static final String FETCHED_AT = ".fetched-at";
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private final Path file;
+
+  private final SecretKeySpec key;
+
+  private final Duration ttl;
+
+  private final Clock clock;
+
+  /**
+   * Creates a cache.
+   *
+   * @param file the cache file
+   * @param key  a 128, 192 or 256 bit AES key
+   * @param ttl  how long cached secrets are used
+   */
+  public EncryptedSecretCache(Path file, byte[] key, Duration ttl) {
+    this(file, key, ttl, Clock.systemUTC());
+  }
+
+  EncryptedSecretCache(Path file, byte[] key, Duration ttl, Clock clock) {
+    this.file = file;
+    this.key = new SecretKeySpec(key, "AES");
+    this.ttl = ttl;
+    this.clock = clock;
+  }
+
+  /**
+   * Reads the cached secrets.
+   *
+   * @param names        the secrets needed
+   * @param allowExpired whether secrets older than the TTL may be returned
+   * @return the cached secrets, or empty if there is no usable cache for these names
+   */
+  public Optional<Map<String, String>> read(Set<String> names, boolean allowExpired) {
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    try {
+      final byte[] content = Files.readAllBytes(file);
+      final Cipher cipher = Cipher.getInstance(CIPHER);
+      cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, content, 0, IV_BYTES));
+      cipher.updateAAD(associatedData(names));
+      final byte[] plain = cipher.doFinal(content, IV_BYTES, content.length - IV_BYTES);
+
+      final Properties properties = new Properties();
+      properties.load(new StringReader(new String(plain, StandardCharsets.UTF_8)));
+      final Instant fetchedAt =
+          Instant.ofEpochMilli(Long.parseLong(properties.getProperty(FETCHED_AT)));
+      if (!allowExpired && clock.instant().isAfter(fetchedAt.plus(ttl))) {
+        return Optional.empty();
+      }
+
+      final Map<String, String> secrets = new HashMap<>();
+      for (String name : names) {
+        final String value = properties.getProperty(name);
+        if (value == null) {
+          return Optional.empty();
+        }
+        secrets.put(name, value);
+      }
+      return Optional.of(secrets);
+    } catch (IOException | GeneralSecurityException | RuntimeException e) {
+      // unreadable, written with another key or for other names: fetch again
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Replaces the cache with the given secrets.
+   *
+   * @param secrets the secrets, keyed by name
+   * @throws IOException if the cache cannot be written
+   */
+  public void write(Map<String, String> secrets) throws IOException {
+    final Properties properties = new Properties();
+    properties.putAll(secrets);
+    properties.setProperty(FETCHED_AT, Long.toString(clock.millis()));
+    final StringWriter plain = new StringWriter();
+    properties.store(plain, null);
+
+    final byte[] content;
+    try {
+      final byte[] iv = new byte[IV_BYTES];
+      RANDOM.nextBytes(iv);
+      final Cipher cipher = Cipher.getInstance(CIPHER);
+      cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+      cipher.updateAAD(associatedData(secrets.keySet()));
+      final byte[] encrypted = cipher.doFinal(plain.toString().getBytes(StandardCharsets.UTF_8));
+      content = new byte[IV_BYTES + encrypted.length];
+      System.arraycopy(iv, 0, content, 0, IV_BYTES);
+      System.arraycopy(encrypted, 0, content, IV_BYTES, encrypted.length);
+    } catch (GeneralSecurityException e) {
+      throw new IOException("Unable to encrypt secrets cache", e);
+    }
+
+    // written next to the cache and moved into place, readable by the owner only
+    final Path directory = file.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    final Path temp = FileSystems.getDefault().supportedFileAttributeViews().contains("posix")
+        ? Files.createTempFile(directory, ".secrets", ".tmp",
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")))
+        : Files.createTempFile(directory, ".secrets", ".tmp");
+    try {
+      Files.write(temp, content);
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static byte[] associatedData(Set<String> names) {
+    return String.join(",", new TreeSet<>(names)).getBytes(StandardCharsets.UTF_8);
+  }
+}
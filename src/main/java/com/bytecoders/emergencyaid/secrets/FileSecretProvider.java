@@ -0,0 +1,44 @@
+package com.bytecoders.emergencyaid.secrets;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Offline stand-in for Secret Manager that reads secrets from a properties file of
+ * {@code NAME=value} lines, for tests, benchmarks and local runs.
+ */
+public class FileSecretProvider implements SecretProvider {
+
+  private final Path file;
+
+  public FileSecretProvider(Path file) {
+    this.file = file;
+  }
+
+  @Override
+  public Map<String, String> fetch(Set<String> names) {
+    final Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read secrets file " + file.toAbsolutePath(), e);
+    }
+
+    final Map<String, String> secrets = new HashMap<>();
+    for (String name : names) {
+      final String value = properties.getProperty(name);
+      if (value == null) {
+        throw new IllegalStateException("Secret " + name + " is missing from " + file);
+      }
+      secrets.put(name, value);
+    }
+    return secrets;
+  }
+}
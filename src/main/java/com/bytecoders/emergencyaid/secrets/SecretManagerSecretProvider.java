@@ -0,0 +1,58 @@
+package com.bytecoders.emergencyaid.secrets;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.secretmanager.v1.AccessSecretVersionRequest;
+import com.google.cloud.secretmanager.v1.AccessSecretVersionResponse;
+import com.google.cloud.secretmanager.v1.SecretManagerServiceClient;
+import com.google.cloud.secretmanager.v1.SecretVersionName;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Fetches secrets from GCP Secret Manager. All requests are started before any response is
+ * awaited, so a batch costs about one round trip rather than one per secret.
+ */
+public class SecretManagerSecretProvider implements SecretProvider {
+
+  private final String projectId;
+
+  public SecretManagerSecretProvider(String projectId) {
+    this.projectId = projectId;
+  }
+
+  @Override
+  public Map<String, String> fetch(Set<String> names) {
+    try (SecretManagerServiceClient client = SecretManagerServiceClient.create()) {
+      final Map<String, ApiFuture<AccessSecretVersionResponse>> pending = new HashMap<>();
+      for (String name : names) {
+        final AccessSecretVersionRequest request = AccessSecretVersionRequest.newBuilder()
+            .setName(versionName(name).toString())
+            .build();
+        pending.put(name, client.accessSecretVersionCallable().futureCall(request));
+      }
+
+      final Map<String, String> secrets = new HashMap<>();
+      for (Map.Entry<String, ApiFuture<AccessSecretVersionResponse>> entry : pending.entrySet()) {
+        secrets.put(entry.getKey(), entry.getValue().get().getPayload().getData().toStringUtf8());
+      }
+      return secrets;
+    } catch (IOException | ExecutionException e) {
+      throw new IllegalStateException("Unable to fetch secrets from Secret Manager", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while fetching secrets", e);
+    }
+  }
+
+  private SecretVersionName versionName(String name) {
+    final int separator = name.indexOf('/');
+    if (separator < 0) {
+      return SecretVersionName.of(projectId, name, "latest");
+    }
+    return SecretVersionName.of(projectId, name.substring(0, separator),
+        name.substring(separator + 1));
+  }
+}
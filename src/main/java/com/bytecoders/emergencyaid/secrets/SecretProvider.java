@@ -0,0 +1,19 @@
+package com.bytecoders.emergencyaid.secrets;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Source of the secrets referenced as {@code ${sm://NAME}} in the application configuration.
+ */
+public interface SecretProvider {
+
+  /**
+   * Fetches secrets in one batch.
+   *
+   * @param names the secret names, optionally suffixed with {@code /<version>}
+   * @return the value of every requested secret, keyed by name
+   * @throws IllegalStateException if a secret cannot be fetched
+   */
+  Map<String, String> fetch(Set<String> names);
+}
@@ -0,0 +1,165 @@
+package com.bytecoders.emergencyaid.secrets;
+
+import com.google.cloud.ServiceOptions;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.logging.Log;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.config.ConfigDataEnvironmentPostProcessor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+
+/**
+ * Resolves every {@code ${sm://NAME}} reference in the configuration in one batch before the
+ * context starts, instead of one Secret Manager call per placeholder as it is resolved.
+ *
+ * <p>With {@code emergencyaid.secrets.provider=file} the secrets are read from
+ * {@code emergencyaid.secrets.file} instead, and Secret Manager is not used at all. Otherwise,
+ * when {@code emergencyaid.secrets.cache.key} is set, fetched secrets are kept in an
+ * {@link EncryptedSecretCache} for {@code emergencyaid.secrets.cache.ttl}; an expired cache is
+ * still used if Secret Manager is unreachable.
+ */
+public class SecretsEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+  static final String PROPERTY_SOURCE_NAME = "emergencyaidSecrets";
+
+  private static final Pattern REFERENCE = Pattern.compile("\\$\\{sm://([\\w./-]+)}");
+
+  private static final String FILE_PROVIDER = "file";
+
+  // logging is not initialized yet; the DeferredLog handed in by Spring Boot replays messages
+  // once it is, and it is only available per instance
+  @SuppressWarnings("PMD.ProperLogger")
+  private final Log log;
+
+  public SecretsEnvironmentPostProcessor(DeferredLogFactory logFactory) {
+    this.log = logFactory.getLog(SecretsEnvironmentPostProcessor.class);
+  }
+
+  @Override
+  public int getOrder() {
+    // after application.properties and profile files have been loaded
+    return ConfigDataEnvironmentPostProcessor.ORDER + 1;
+  }
+
+  @Override
+  public void postProcessEnvironment(ConfigurableEnvironment environment,
+      SpringApplication application) {
+    final Set<String> names = findReferences(environment);
+    if (names.isEmpty()) {
+      return;
+    }
+
+    final Map<String, Object> properties = new HashMap<>();
+    final Map<String, String> secrets;
+    if (FILE_PROVIDER.equals(environment.getProperty("emergencyaid.secrets.provider"))) {
+      final Path file = Path.of(
+          environment.getProperty("emergencyaid.secrets.file", "secrets.local.properties"));
+      secrets = new FileSecretProvider(file).fetch(names);
+      properties.put("spring.cloud.gcp.secretmanager.enabled", "false");
+      log.info("Read " + secrets.size() + " secrets from " + file);
+    } else {
+      secrets = fetchWithCache(environment, names);
+    }
+
+    secrets.forEach((name, value) -> properties.put("sm://" + name, value));
+    environment.getPropertySources()
+        .addFirst(new MapPropertySource(PROPERTY_SOURCE_NAME, properties));
+  }
+
+  static Set<String> findReferences(ConfigurableEnvironment environment) {
+    final Set<String> names = new TreeSet<>();
+    for (PropertySource<?> source : environment.getPropertySources()) {
+      if (!(source instanceof EnumerablePropertySource<?> enumerable)) {
+        continue;
+      }
+      for (String propertyName : enumerable.getPropertyNames()) {
+        if (enumerable.getProperty(propertyName) instanceof CharSequence value) {
+          final Matcher matcher = REFERENCE.matcher(value);
+          while (matcher.find()) {
+            names.add(matcher.group(1));
+          }
+        }
+      }
+    }
+    return names;
+  }
+
+  private Map<String, String> fetchWithCache(ConfigurableEnvironment environment,
+      Set<String> names) {
+    final EncryptedSecretCache cache = cache(environment);
+    if (cache != null) {
+      final Optional<Map<String, String>> cached = cache.read(names, false);
+      if (cached.isPresent()) {
+        log.info("Using " + names.size() + " cached secrets");
+        return cached.get();
+      }
+    }
+
+    final long start = System.nanoTime();
+    final Map<String, String> secrets;
+    try {
+      secrets = new SecretManagerSecretProvider(projectId(environment)).fetch(names);
+    } catch (RuntimeException e) {
+      final Optional<Map<String, String>> stale =
+          cache == null ? Optional.empty() : cache.read(names, true);
+      if (stale.isEmpty()) {
+        throw e;
+      }
+      log.warn("Secret Manager unavailable, using expired cached secrets", e);
+      return stale.get();
+    }
+    log.info("Fetched " + secrets.size() + " secrets from Secret Manager in "
+        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+
+    if (cache != null) {
+      try {
+        cache.write(secrets);
+      } catch (IOException e) {
+        log.warn("Unable to write secrets cache", e);
+      }
+    }
+    return secrets;
+  }
+
+  private EncryptedSecretCache cache(ConfigurableEnvironment environment) {
+    final String key = environment.getProperty("emergencyaid.secrets.cache.key", "");
+    if (key.isBlank()) {
+      return null;
+    }
+    final Path file = Path.of(environment.getProperty("emergencyaid.secrets.cache.file",
+        System.getProperty("java.io.tmpdir") + "/emergencyaid-secrets.bin"));
+    return new EncryptedSecretCache(file, Base64.getDecoder().decode(key),
+        DurationStyle.detectAndParse(
+            environment.getProperty("emergencyaid.secrets.cache.ttl", "1h")));
+  }
+
+  private static String projectId(ConfigurableEnvironment environment) {
+    String projectId = environment.getProperty("spring.cloud.gcp.secretmanager.project-id",
+        environment.getProperty("spring.cloud.gcp.project-id"));
+    if (projectId == null) {
+      // environment variables, gcloud config or the metadata server
+      projectId = ServiceOptions.getDefaultProjectId();
+    }
+    if (projectId == null) {
+      throw new IllegalStateException("No GCP project ID found for Secret Manager; set "
+          + "spring.cloud.gcp.project-id or use emergencyaid.secrets.provider=file");
+    }
+    return projectId;
+  }
+}
@@ -1,6 +1,9 @@
 package com.bytecoders.emergencyaid.security;
 
+import com.bytecoders.emergencyaid.service.TokenRevocationService;
 import com.bytecoders.emergencyaid.util.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +25,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
   @Autowired
   private JwtUtils jwtUtils;
 
+  @Autowired
+  private TokenRevocationService tokenRevocationService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
   /**
    * Filter incoming requests to authenticate users based on JWT token Auth header.
    *
@@ -46,15 +55,43 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     }
 
     final String jwt = extractJwtFromHeader(request);
-    final String userId = extractUserIdFromJwt(jwt);
-
-    if (userId != null && isAuthenticationNull() && jwtUtils.isTokenValid(jwt, userId)) {
-      setUpAuthentication(userId, request);
+    if (jwt != null) {
+      authenticate(jwt, request);
     }
 
     chain.doFilter(request, response);
   }
 
+  /**
+   * Validate the JWT, check it was not revoked and set up authentication, recording how long
+   * verification took.
+   *
+   * @param jwt     JWT token from the Auth header
+   * @param request HTTP request to build auth details
+   */
+  private void authenticate(String jwt, HttpServletRequest request) {
+    final Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "error";
+    try {
+      final String userId = extractUserIdFromJwt(jwt);
+      outcome = "rejected";
+
+      if (userId != null && isAuthenticationNull() && jwtUtils.isTokenValid(jwt, userId)) {
+        if (tokenRevocationService.isRevoked(jwtUtils.extractTokenId(jwt))) {
+          outcome = "revoked";
+          return;
+        }
+        setUpAuthentication(userId, request);
+        outcome = "authenticated";
+      }
+    } finally {
+      sample.stop(Timer.builder("emergencyaid.jwt.verification")
+          .description("JWT verification in the request filter")
+          .tag("outcome", outcome)
+          .register(meterRegistry));
+    }
+  }
+
   /**
    * Extract JWT token from Auth header.
    *
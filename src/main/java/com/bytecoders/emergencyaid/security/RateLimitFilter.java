@@ -0,0 +1,192 @@
+package com.bytecoders.emergencyaid.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Spring security filter, after {@link JwtRequestFilter}, that limits request rates per route.
+ * Requests are counted per authenticated user, or per client IP for unauthenticated requests;
+ * over the limit they are rejected with 429 and a Retry-After header.
+ *
+ * <p>Limits are configured as {@code PATTERN=CAPACITY/PERIOD}, eg {@code /login=10/1m}: up to
+ * 10 requests at once, refilled at 10 per minute. The first matching pattern applies, then the
+ * default limit.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private final boolean enabled;
+
+  private final List<Route> routes = new ArrayList<>();
+
+  private final List<PathPattern> exempt = new ArrayList<>();
+
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Creates the filter from its configuration.
+   *
+   * @param enabled       whether to limit at all
+   * @param routeLimits   per-route limits, {@code PATTERN=CAPACITY/PERIOD}
+   * @param defaultLimit  limit for other routes, {@code CAPACITY/PERIOD}
+   * @param exemptRoutes  patterns that are never limited
+   * @param maxKeys       the most clients tracked per route
+   * @param meterRegistry registry for rejection metrics
+   */
+  public RateLimitFilter(
+      @Value("${emergencyaid.rate-limit.enabled:true}") boolean enabled,
+      @Value("${emergencyaid.rate-limit.routes:}") String[] routeLimits,
+      @Value("${emergencyaid.rate-limit.default:300/1m}") String defaultLimit,
+      @Value("${emergencyaid.rate-limit.exempt:/actuator/**}") String[] exemptRoutes,
+      @Value("${emergencyaid.rate-limit.max-keys:100000}") int maxKeys,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.meterRegistry = meterRegistry;
+
+    final PathPatternParser parser = PathPatternParser.defaultInstance;
+    for (String routeLimit : routeLimits) {
+      if (routeLimit.isBlank()) {
+        continue;
+      }
+      final int separator = routeLimit.lastIndexOf('=');
+      if (separator < 0) {
+        throw new IllegalArgumentException("Rate limit must be PATTERN=CAPACITY/PERIOD: "
+            + routeLimit);
+      }
+      final String pattern = routeLimit.substring(0, separator).trim();
+      routes.add(route(parser.parse(pattern), pattern,
+          routeLimit.substring(separator + 1), maxKeys));
+    }
+    routes.add(route(null, "default", defaultLimit, maxKeys));
+    for (String route : exemptRoutes) {
+      exempt.add(parser.parse(route.trim()));
+    }
+  }
+
+  /**
+   * Take a token for the request's route and client, or reject the request with 429.
+   *
+   * @param request  the HTTP request to be processed
+   * @param response the HTTP response to be generated
+   * @param chain    the filter chain to pass control to the next filter
+   * @throws ServletException if an error occurs during the filter process
+   * @throws IOException      if an input/output error occurs during the filter process
+   */
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (!enabled) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    final PathContainer path = PathContainer.parsePath(request.getRequestURI());
+    for (PathPattern pattern : exempt) {
+      if (pattern.matches(path)) {
+        chain.doFilter(request, response);
+        return;
+      }
+    }
+
+    final Route route = match(path);
+    final long waitNanos = route.limiter().tryAcquire(clientKey(request), System.nanoTime());
+    if (waitNanos > 0) {
+      route.rejected().increment();
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER,
+          Long.toString(Math.max(1, divideRoundingUp(waitNanos, TimeUnit.SECONDS.toNanos(1)))));
+      response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+      response.getWriter().write("Too many requests");
+      return;
+    }
+
+    chain.doFilter(request, response);
+  }
+
+  /**
+   * Removes the buckets of clients that have been idle long enough to be back at full capacity.
+   */
+  @Scheduled(fixedDelayString = "${emergencyaid.rate-limit.eviction-interval-ms:60000}")
+  public void evictIdleBuckets() {
+    final long now = System.nanoTime();
+    for (Route route : routes) {
+      route.limiter().evictIdle(now);
+    }
+  }
+
+  private Route match(PathContainer path) {
+    for (Route route : routes) {
+      if (route.pattern() == null || route.pattern().matches(path)) {
+        return route;
+      }
+    }
+    throw new IllegalStateException("No default rate limit");
+  }
+
+  /**
+   * Key requests by authenticated user, set by {@link JwtRequestFilter}, or else by client IP.
+   * Behind App Engine's front end the IP comes from X-Forwarded-For, see
+   * server.forward-headers-strategy.
+   *
+   * @param request HTTP request
+   * @return the client key
+   */
+  private String clientKey(HttpServletRequest request) {
+    final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.getPrincipal() instanceof String userId) {
+      return "user:" + userId;
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  private Route route(PathPattern pattern, String name, String limit, int maxKeys) {
+    final int separator = limit.indexOf('/');
+    if (separator < 0) {
+      throw new IllegalArgumentException("Rate limit must be CAPACITY/PERIOD: " + limit);
+    }
+    final int capacity = Integer.parseInt(limit.substring(0, separator).trim());
+    final Duration period = DurationStyle.detectAndParse(limit.substring(separator + 1).trim());
+    final RateLimiter limiter = new RateLimiter(capacity, period, maxKeys);
+
+    Gauge.builder("emergencyaid.ratelimit.clients", limiter, RateLimiter::size)
+        .description("Clients with a rate limit bucket")
+        .tag("route", name)
+        .register(meterRegistry);
+    final Counter rejected = Counter.builder("emergencyaid.ratelimit.rejected")
+        .description("Requests rejected with 429")
+        .tag("route", name)
+        .register(meterRegistry);
+    return new Route(pattern, limiter, rejected);
+  }
+
+  private static long divideRoundingUp(long dividend, long divisor) {
+    return (dividend + divisor - 1) / divisor;
+  }
+
+  private record Route(PathPattern pattern, RateLimiter limiter, Counter rejected) {
+  }
+}
@@ -0,0 +1,92 @@
+package com.bytecoders.emergencyaid.security;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by client, each allowing {@code capacity} requests per {@code period} with
+ * bursts of up to {@code capacity}. A bucket is a single timestamp updated by compare-and-set
+ * (the generic cell rate algorithm): the time at which it will be full again. A full bucket is
+ * the same as a missing one, so idle buckets are evicted without losing state.
+ *
+ * <p>Once {@code maxKeys} buckets exist, clients without one share a single overflow bucket until
+ * idle buckets are evicted, so memory stays bounded however many keys are seen.
+ */
+public class RateLimiter {
+
+  // time to refill one token
+  private final long intervalNanos;
+
+  // how far ahead of now the full-again time may be while a token is still left
+  private final long toleranceNanos;
+
+  private final int maxKeys;
+
+  private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+  private final AtomicLong overflow;
+
+  /**
+   * Creates a rate limiter.
+   *
+   * @param capacity requests allowed per period, and the largest burst
+   * @param period   the period
+   * @param maxKeys  the most buckets to keep
+   */
+  public RateLimiter(int capacity, Duration period, int maxKeys) {
+    if (capacity < 1 || period.isNegative() || period.isZero()) {
+      throw new IllegalArgumentException("Rate limit must allow at least 1 request per period");
+    }
+    this.intervalNanos = period.toNanos() / capacity;
+    this.toleranceNanos = intervalNanos * (capacity - 1);
+    this.maxKeys = maxKeys;
+    this.overflow = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * Takes a token from a client's bucket.
+   *
+   * @param key the client
+   * @param now {@link System#nanoTime()}
+   * @return 0 if a token was taken; else the nanoseconds until one is available
+   */
+  public long tryAcquire(String key, long now) {
+    AtomicLong bucket = buckets.get(key);
+    if (bucket == null) {
+      bucket = buckets.size() < maxKeys
+          ? buckets.computeIfAbsent(key, k -> new AtomicLong(now)) : overflow;
+    }
+
+    while (true) {
+      final long fullAt = bucket.get();
+      final long start = fullAt - now > 0 ? fullAt : now;
+      final long wait = start - now - toleranceNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (bucket.compareAndSet(fullAt, start + intervalNanos)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Removes full buckets. A request racing with the removal may take its token from the removed
+   * bucket, so a client can occasionally get one request more than its limit.
+   *
+   * @param now {@link System#nanoTime()}
+   */
+  public void evictIdle(long now) {
+    buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+  }
+
+  /**
+   * Number of buckets held, excluding the overflow bucket.
+   *
+   * @return the number of buckets
+   */
+  public int size() {
+    return buckets.size();
+  }
+}
@@ -0,0 +1,201 @@
+package com.bytecoders.emergencyaid.service;
+
+import com.bytecoders.emergencyaid.repository.DedupCheckpointRepository;
+import com.bytecoders.emergencyaid.repository.MergeSuggestionRepository;
+import com.bytecoders.emergencyaid.repository.PatientBlockingKeyRepository;
+import com.bytecoders.emergencyaid.repository.PatientRepository;
+import com.bytecoders.emergencyaid.repository.model.DedupCheckpoint;
+import com.bytecoders.emergencyaid.repository.model.MergeSuggestion;
+import com.bytecoders.emergencyaid.repository.model.PatientBlockingKey;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.bytecoders.emergencyaid.util.PatientMatcher;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Background job that finds likely duplicate patients and records merge suggestions.
+ *
+ * <p>A patient counts as processed once it has rows in patient_blocking_keys. Each chunk, one
+ * transaction, selects unprocessed patients through an anti-join on that table, so memory is
+ * bounded by the chunk size and new patients are picked up by later runs whatever their primary
+ * key version. Each patient is scored only against already processed patients sharing a
+ * blocking key (see {@link PatientMatcher#blockingKeys}), so every pair is compared once;
+ * patients without any blocking key get a {@link #PROCESSED_MARKER} row instead. The checkpoint
+ * row serializes concurrent runs across instances and records the last processed patient. To
+ * rescan every patient, clear patient_blocking_keys.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "emergencyaid.dedup.enabled", havingValue = "true")
+public class PatientDedupJob {
+
+  public static final String JOB_NAME = "patient-dedup";
+
+  /**
+   * Blocking key recorded for patients that have no real blocking key, so they are not selected
+   * again. Real keys always contain a colon, so it never forms a block.
+   */
+  static final String PROCESSED_MARKER = "processed";
+
+  @Autowired
+  private PatientRepository patientRepository;
+
+  @Autowired
+  private PatientBlockingKeyRepository blockingKeyRepository;
+
+  @Autowired
+  private MergeSuggestionRepository mergeSuggestionRepository;
+
+  @Autowired
+  private DedupCheckpointRepository checkpointRepository;
+
+  @Autowired
+  private PatientMatcher patientMatcher;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Value("${emergencyaid.dedup.chunk-size:500}")
+  private int chunkSize;
+
+  @Value("${emergencyaid.dedup.max-chunks-per-run:20}")
+  private int maxChunksPerRun;
+
+  @Value("${emergencyaid.dedup.max-block-size:200}")
+  private int maxBlockSize;
+
+  @Value("${emergencyaid.dedup.score-threshold:0.85}")
+  private double scoreThreshold;
+
+  /**
+   * Processes up to {@code max-chunks-per-run} chunks, stopping early once every patient
+   * is processed.
+   */
+  @Scheduled(initialDelayString = "${emergencyaid.dedup.initial-delay-ms:60000}",
+      fixedDelayString = "${emergencyaid.dedup.interval-ms:300000}")
+  public void run() {
+    int processed = 0;
+    int suggested = 0;
+    for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+      final ChunkResult result = transactionTemplate.execute(status -> processNextChunk());
+      processed += result.patients();
+      suggested += result.suggestions();
+      if (result.patients() < chunkSize) {
+        break;
+      }
+    }
+    if (processed > 0) {
+      log.info("De-duplication processed {} patients, {} new merge suggestions",
+          processed, suggested);
+    }
+  }
+
+  /**
+   * Processes the next chunk of unprocessed patients. Must run in a transaction; the checkpoint
+   * row stays locked until it commits, so chunks of concurrent runs do not overlap.
+   *
+   * @return the number of patients processed and suggestions recorded
+   */
+  ChunkResult processNextChunk() {
+    final DedupCheckpoint checkpoint = checkpointRepository.findForUpdateByJobName(JOB_NAME)
+        .orElseThrow(() -> new IllegalStateException("Missing checkpoint for " + JOB_NAME));
+    final List<PatientSummary> chunk =
+        patientRepository.findUnprocessedSummaries(PageRequest.of(0, chunkSize));
+    if (chunk.isEmpty()) {
+      return new ChunkResult(0, 0);
+    }
+
+    final Map<UUID, Set<String>> chunkKeys = new HashMap<>();
+    final Set<String> allKeys = new HashSet<>();
+    for (PatientSummary patient : chunk) {
+      final Set<String> keys = patientMatcher.blockingKeys(patient);
+      chunkKeys.put(patient.id(), keys);
+      allKeys.addAll(keys);
+    }
+
+    // members of each block among previously processed patients; grows as the chunk is walked
+    final Map<String, List<UUID>> blocks = new HashMap<>();
+    for (PatientBlockingKey key : blockingKeyRepository.findByBlockKeyIn(allKeys)) {
+      blocks.computeIfAbsent(key.getBlockKey(), k -> new ArrayList<>()).add(key.getPatientId());
+    }
+
+    final Map<UUID, Set<UUID>> candidates = new HashMap<>();
+    final List<PatientBlockingKey> newKeys = new ArrayList<>();
+    for (PatientSummary patient : chunk) {
+      for (String key : chunkKeys.get(patient.id())) {
+        final List<UUID> block = blocks.computeIfAbsent(key, k -> new ArrayList<>());
+        if (block.size() > maxBlockSize) {
+          log.debug("Skipping oversized de-duplication block {} ({} patients)", key, block.size());
+        } else if (!block.isEmpty()) {
+          candidates.computeIfAbsent(patient.id(), id -> new LinkedHashSet<>()).addAll(block);
+        }
+        block.add(patient.id());
+        newKeys.add(new PatientBlockingKey(key, patient.id()));
+      }
+      if (chunkKeys.get(patient.id()).isEmpty()) {
+        newKeys.add(new PatientBlockingKey(PROCESSED_MARKER, patient.id()));
+      }
+    }
+
+    final Set<UUID> earlierIds = candidates.values().stream()
+        .flatMap(Set::stream)
+        .filter(id -> !chunkKeys.containsKey(id))
+        .collect(Collectors.toSet());
+    final Map<UUID, PatientSummary> patients = new HashMap<>();
+    patientRepository.findSummariesByIdIn(earlierIds).forEach(p -> patients.put(p.id(), p));
+    chunk.forEach(p -> patients.put(p.id(), p));
+
+    final List<MergeSuggestion> suggestions = new ArrayList<>();
+    final Instant now = Instant.now();
+    for (Map.Entry<UUID, Set<UUID>> entry : candidates.entrySet()) {
+      final PatientSummary duplicate = patients.get(entry.getKey());
+      for (UUID candidateId : entry.getValue()) {
+        final PatientSummary original = patients.get(candidateId);
+        if (original == null) {
+          continue;
+        }
+        final double score = patientMatcher.score(original, duplicate);
+        if (score >= scoreThreshold && !mergeSuggestionRepository
+            .existsByPatientIdAndDuplicatePatientId(original.id(), duplicate.id())) {
+          suggestions.add(suggestion(original.id(), duplicate.id(), score, now));
+        }
+      }
+    }
+
+    blockingKeyRepository.saveAll(newKeys);
+    mergeSuggestionRepository.saveAll(suggestions);
+    checkpoint.setLastPatientId(chunk.get(chunk.size() - 1).id());
+    checkpoint.setUpdatedAt(now);
+    checkpointRepository.save(checkpoint);
+    return new ChunkResult(chunk.size(), suggestions.size());
+  }
+
+  private static MergeSuggestion suggestion(UUID patientId, UUID duplicateId, double score,
+      Instant createdAt) {
+    final MergeSuggestion suggestion = new MergeSuggestion();
+    suggestion.setPatientId(patientId);
+    suggestion.setDuplicatePatientId(duplicateId);
+    suggestion.setScore(score);
+    suggestion.setCreatedAt(createdAt);
+    return suggestion;
+  }
+
+  record ChunkResult(int patients, int suggestions) {
+  }
+}
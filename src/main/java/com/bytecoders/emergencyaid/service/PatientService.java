@@ -1,24 +1,46 @@
 package com.bytecoders.emergencyaid.service;
 
+import com.bytecoders.emergencyaid.events.PatientRegisteredEvent;
+import com.bytecoders.emergencyaid.openapi.model.Prescription;
 import com.bytecoders.emergencyaid.openapi.model.RegisterPatientRequest;
+import com.bytecoders.emergencyaid.repository.MergeSuggestionRepository;
 import com.bytecoders.emergencyaid.repository.PatientRepository;
+import com.bytecoders.emergencyaid.repository.model.MergeSuggestion;
 import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.repository.model.PatientField;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.bytecoders.emergencyaid.util.Etags;
 import com.bytecoders.emergencyaid.util.QueryValidator;
 import com.bytecoders.emergencyaid.util.ServiceUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.annotation.Observed;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -26,11 +48,18 @@ import org.springframework.web.client.RestTemplate;
  */
 @Slf4j
 @Service
+@Observed(name = "emergencyaid.patient.service")
 public class PatientService {
 
+  private static final PrescriptionCache.Entry NO_PRESCRIPTIONS = new PrescriptionCache.Entry(
+      Collections.emptyList(), Etags.ofContent("[]".getBytes(StandardCharsets.UTF_8)), 0);
+
   @Autowired
   private PatientRepository patientRepository;
 
+  @Autowired
+  private MergeSuggestionRepository mergeSuggestionRepository;
+
   @Autowired
   private ServiceUtils serviceUtils;
 
@@ -43,6 +72,18 @@ public class PatientService {
   @Autowired
   private RestTemplate restTemplate;
 
+  @Autowired
+  private PrescriptionJson prescriptionJson;
+
+  @Autowired
+  private PrescriptionCache prescriptionCache;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
   @Value("${pharmaid.api.base-url}")
   private String pharmaidBaseUrl;
 
@@ -76,16 +117,42 @@ public class PatientService {
     newPatient.setLastName(lastName);
     newPatient.setPhoneNumber(phoneNumber);
     newPatient.setPharmaId(pharmaId);
-    return patientRepository.save(newPatient);
+    final Patient savedPatient = patientRepository.save(newPatient);
+    eventPublisher.publishEvent(new PatientRegisteredEvent(PatientSummary.of(savedPatient)));
+    return savedPatient;
   }
 
   /**
    * Retrieve patients from EmergencyAid.
    *
-   * @return a list of patient's prescriptions
+   * @return summaries of all patients
+   */
+  @Transactional(readOnly = true)
+  public List<PatientSummary> getAllPatients() {
+    return getAllPatients(PatientField.ALL);
+  }
+
+  /**
+   * Retrieve patients from EmergencyAid, selecting only some of their fields.
+   *
+   * @param fields the fields to select; the others are null
+   * @return summaries of all patients
    */
-  public List<Patient> getAllPatients() {
-    return patientRepository.findAll();
+  @Transactional(readOnly = true)
+  public List<PatientSummary> getAllPatients(Set<PatientField> fields) {
+    return select(fields, "", Map.of(), patientRepository::findAllSummaries);
+  }
+
+  /**
+   * Retrieve the merge suggestions found by the de-duplication job, most likely duplicates
+   * first.
+   *
+   * @param limit the maximum number of suggestions to return
+   * @return the highest scoring merge suggestions
+   */
+  @Transactional(readOnly = true)
+  public List<MergeSuggestion> getMergeSuggestions(int limit) {
+    return mergeSuggestionRepository.findAllByOrderByScoreDesc(PageRequest.of(0, limit));
   }
 
   /**
@@ -94,10 +161,66 @@ public class PatientService {
    * @param patientId the UUID of patient account
    * @return a list of patient's prescriptions
    */
-  public List<Map<String, Object>> getPatientPrescriptions(UUID patientId) {
+  public List<Prescription> getPatientPrescriptions(UUID patientId) {
+    return getVersionedPatientPrescriptions(patientId).prescriptions();
+  }
+
+  /**
+   * Retrieve patient prescriptions from PharmaId, together with their ETag. VIEW access is
+   * requested every time; the prescriptions themselves may come from the
+   * {@link PrescriptionCache}.
+   *
+   * @param patientId the UUID of patient account
+   * @return the patient's prescriptions and their content hash
+   */
+  public PrescriptionCache.Entry getVersionedPatientPrescriptions(UUID patientId) {
+    final Optional<String> pharmaId = authorizePrescriptionView(patientId);
+    if (pharmaId.isEmpty()) {
+      return NO_PRESCRIPTIONS;
+    }
+    return prescriptionCache.get(pharmaId.get())
+        .orElseGet(() -> fetchPrescriptions(pharmaId.get()));
+  }
+
+  private PrescriptionCache.Entry fetchPrescriptions(String pharmaId) {
+    try {
+      final List<Prescription> prescriptions = restTemplate.execute(prescriptionsUrl(pharmaId),
+          HttpMethod.GET, pharmaidHeadersCallback(), this::readPrescriptions);
+      final String etag = Etags.ofContent(prescriptionJson.write(prescriptions));
+      return prescriptionCache.put(pharmaId, prescriptions, etag);
+    } catch (Exception e) {
+      throw new IllegalStateException("Error while retrieving prescriptions from PharmaId", e);
+    }
+  }
+
+  /**
+   * Stream a patient's prescriptions from PharmaId straight to the given output without
+   * deserializing them. Callers must obtain VIEW access first, see
+   * {@link #authorizePrescriptionView(UUID)}.
+   *
+   * @param pharmaId the ID of the patient's PharmaId account
+   * @param out      the stream to copy the PharmaId response body to
+   */
+  public void streamPatientPrescriptions(String pharmaId, OutputStream out) {
+    try {
+      restTemplate.execute(prescriptionsUrl(pharmaId), HttpMethod.GET, pharmaidHeadersCallback(),
+          response -> response.getBody().transferTo(out));
+    } catch (Exception e) {
+      throw new IllegalStateException("Error while streaming prescriptions from PharmaId", e);
+    }
+  }
+
+  /**
+   * Obtains VIEW access to a patient's prescriptions.
+   *
+   * @param patientId the UUID of patient account
+   * @return the patient's PharmaId, or empty if the patient has no PharmaId account
+   * @throws IllegalStateException if PharmaId does not grant VIEW access
+   */
+  public Optional<String> authorizePrescriptionView(UUID patientId) {
     // check if PharmaId account exists
     if (!hasPharmaId(patientId)) {
-      return Collections.emptyList();
+      return Optional.empty();
     }
 
     // request access to VIEW patient prescriptions
@@ -105,20 +228,18 @@ public class PatientService {
     if (!requestPatientPrescriptionAccess(pharmaId)) {
       throw new IllegalStateException("Unable to obtain VIEW access for prescriptions");
     }
+    return Optional.of(pharmaId);
+  }
 
-    try {
-      // PharmaId getPrescriptions endpoint
-      String url = String.format("%s/users/%s/prescriptions", pharmaidBaseUrl, pharmaId);
-
-      // HttpEntity with headers only
-      HttpEntity<Void> entity = new HttpEntity<>(pharmadAuthService.getHeaders());
-
-      return restTemplate.exchange(url, HttpMethod.GET, entity,
-          new ParameterizedTypeReference<List<Map<String, Object>>>() {
-          }).getBody();
-    } catch (Exception e) {
-      throw new IllegalStateException("Error while retrieving prescriptions from PharmaId", e);
-    }
+  /**
+   * Deserializes a PharmaId prescriptions response, see {@link PrescriptionJson#readArray}.
+   *
+   * @param response the PharmaId getPrescriptions response
+   * @return the typed prescriptions
+   * @throws IOException if the body cannot be read or is not a JSON array
+   */
+  public List<Prescription> readPrescriptions(ClientHttpResponse response) throws IOException {
+    return prescriptionJson.readArray(response.getBody());
   }
 
   /**
@@ -142,8 +263,7 @@ public class PatientService {
       // create POST request
       ResponseEntity<?> response = restTemplate.postForEntity(url, entity, Object.class);
 
-      log.debug("Response: Status Code = {}, Body = {}", response.getStatusCode(),
-          response.getBody());
+      log.debug("Response: Status Code = {}", response.getStatusCode());
 
       // ensure 201 response
       return response.getStatusCode() == HttpStatus.CREATED;
@@ -157,9 +277,23 @@ public class PatientService {
    * Provide a query to search for patients by UUID, phone number, or full name.
    *
    * @param query input a UUID, phone number, or patient full name
-   * @return list of patients matching the query criteria
+   * @return summaries of the patients matching the query criteria
+   */
+  @Transactional(readOnly = true)
+  public List<PatientSummary> searchPatients(String query) {
+    return searchPatients(query, PatientField.ALL);
+  }
+
+  /**
+   * Search for patients by UUID, phone number, or full name, selecting only some of their
+   * fields.
+   *
+   * @param query  input a UUID, phone number, or patient full name
+   * @param fields the fields to select; the others are null
+   * @return summaries of the patients matching the query criteria
    */
-  public List<Patient> searchPatients(String query) {
+  @Transactional(readOnly = true)
+  public List<PatientSummary> searchPatients(String query, Set<PatientField> fields) {
     // trim input
     query = query.trim();
     if (query.isBlank()) {
@@ -168,36 +302,88 @@ public class PatientService {
 
     // search by UUID
     if (queryValidator.isUuid(query)) {
-      return patientRepository.findById(UUID.fromString(query)).map(List::of).orElse(List.of());
+      final UUID patientId = UUID.fromString(query);
+      return timedSearch("uuid", () -> select(fields, PatientRepository.BY_ID,
+          Map.of("id", patientId),
+          () -> patientRepository.findSummaryById(patientId).map(List::of).orElse(List.of())));
     }
     // search by phone number
     if (queryValidator.isPhoneNumber(query)) {
-      return patientRepository.findByPhoneNumber(query).map(List::of).orElse(List.of());
+      final String phoneNumber = query;
+      return timedSearch("phone", () -> select(fields, PatientRepository.BY_PHONE_NUMBER,
+          Map.of("phoneNumber", phoneNumber),
+          () -> patientRepository.findByPhoneNumber(phoneNumber).map(List::of).orElse(List.of())));
     }
     // search by single name (first name or last name)
     if (queryValidator.isName(query)) {
-      List<Patient> firstNameMatches = patientRepository.findByFirstNameIgnoreCase(query);
-      List<Patient> lastNameMatches = patientRepository.findByLastNameIgnoreCase(query);
-      firstNameMatches.addAll(lastNameMatches); // Combine results
-      return firstNameMatches;
+      final String name = query;
+      return timedSearch("name", () -> {
+        List<PatientSummary> matches = new ArrayList<>(select(fields,
+            PatientRepository.BY_FIRST_NAME, Map.of("firstName", name),
+            () -> patientRepository.findByFirstNameIgnoreCase(name)));
+        // Combine results
+        matches.addAll(select(fields, PatientRepository.BY_LAST_NAME, Map.of("lastName", name),
+            () -> patientRepository.findByLastNameIgnoreCase(name)));
+        return matches;
+      });
     }
     // search by full name
     if (queryValidator.isFullName(query)) {
       String[] names = query.split(QueryValidator.FULL_NAME_REGEX, 2);
-      return patientRepository.findByFullNameIgnoreCase(names[0], names[1]);
+      return timedSearch("full_name", () -> select(fields, PatientRepository.BY_FULL_NAME,
+          Map.of("firstName", names[0], "lastName", names[1]),
+          () -> patientRepository.findByFullNameIgnoreCase(names[0], names[1])));
     }
     return List.of();
   }
 
+  /**
+   * Runs a summary query with all fields through its prepared repository method, or with a
+   * sparse projection of the same condition.
+   *
+   * @param fields     the fields to select
+   * @param where      the query condition, see {@link PatientRepository}
+   * @param parameters the condition's named parameters
+   * @param allFields  the repository query selecting all fields
+   * @return the matching summaries
+   */
+  private List<PatientSummary> select(Set<PatientField> fields, String where,
+      Map<String, ?> parameters, Supplier<List<PatientSummary>> allFields) {
+    if (fields.containsAll(PatientField.ALL)) {
+      return allFields.get();
+    }
+    return patientRepository.findSummaries(fields, where, parameters);
+  }
+
+  private List<PatientSummary> timedSearch(
+      String queryType, Supplier<List<PatientSummary>> search) {
+    return Timer.builder("emergencyaid.patients.search")
+        .description("Patient search by query type")
+        .tag("type", queryType)
+        .register(meterRegistry)
+        .record(search);
+  }
+
+  private String prescriptionsUrl(String pharmaId) {
+    return String.format("%s/users/%s/prescriptions", pharmaidBaseUrl, pharmaId);
+  }
+
+  private RequestCallback pharmaidHeadersCallback() {
+    final HttpHeaders headers = pharmadAuthService.getHeaders();
+    return request -> request.getHeaders().putAll(headers);
+  }
+
   /**
    * Returns a Patient or throws a ResponseStatusException.
    *
    * @param patientId Id of the User
    */
+  @Transactional(readOnly = true)
   public Patient getPatient(UUID patientId) {
     return serviceUtils.findEntityById(patientId, "patient", patientRepository);
   }
 
+  @Transactional(readOnly = true)
   public boolean hasPharmaId(UUID patientId) {
     return getPatient(patientId).getPharmaId() != null;
   }
@@ -0,0 +1,82 @@
+package com.bytecoders.emergencyaid.service;
+
+import com.bytecoders.emergencyaid.openapi.model.Prescription;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived cache of prescriptions fetched from PharmaId, keyed by PharmaId account. Each
+ * entry keeps the content hash used as the response ETag, so a poll that hits the cache can be
+ * answered with 304 without calling PharmaId or serializing the list.
+ */
+@Component
+public class PrescriptionCache {
+
+  /**
+   * Cached prescriptions of one PharmaId account.
+   *
+   * @param prescriptions the prescriptions
+   * @param etag          the quoted content hash of the serialized prescriptions
+   * @param expiresAt     {@link System#nanoTime()} after which the entry is stale
+   */
+  public record Entry(List<Prescription> prescriptions, String etag, long expiresAt) {
+  }
+
+  private final long ttlNanos;
+
+  // least recently used entries are evicted once maxEntries is reached
+  private final Map<String, Entry> entries;
+
+  /**
+   * Creates a cache.
+   *
+   * @param ttlMs      how long fetched prescriptions are served from the cache; 0 disables it
+   * @param maxEntries the maximum number of cached accounts
+   */
+  public PrescriptionCache(
+      @Value("${pharmaid.api.prescriptions.cache-ttl-ms:30000}") long ttlMs,
+      @Value("${pharmaid.api.prescriptions.cache-max-entries:1000}") int maxEntries) {
+    this.ttlNanos = ttlMs * 1_000_000L;
+    this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > maxEntries;
+      }
+    });
+  }
+
+  /**
+   * Returns the unexpired entry for an account.
+   *
+   * @param pharmaId the PharmaId account
+   * @return the cached entry, or empty if there is none or it expired
+   */
+  public Optional<Entry> get(String pharmaId) {
+    final Entry entry = entries.get(pharmaId);
+    if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) {
+      return Optional.empty();
+    }
+    return Optional.of(entry);
+  }
+
+  /**
+   * Caches an account's prescriptions.
+   *
+   * @param pharmaId      the PharmaId account
+   * @param prescriptions the prescriptions fetched from PharmaId
+   * @param etag          the quoted content hash of the prescriptions
+   * @return the new entry
+   */
+  public Entry put(String pharmaId, List<Prescription> prescriptions, String etag) {
+    final Entry entry = new Entry(prescriptions, etag, System.nanoTime() + ttlNanos);
+    if (ttlNanos > 0) {
+      entries.put(pharmaId, entry);
+    }
+    return entry;
+  }
+}
@@ -0,0 +1,89 @@
+package com.bytecoders.emergencyaid.service;
+
+import com.bytecoders.emergencyaid.openapi.model.Prescription;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes PharmaId prescription JSON with an {@link ObjectReader} and
+ * {@link ObjectWriter} built once, rather than per call.
+ */
+@Component
+public class PrescriptionJson {
+
+  private final ObjectMapper objectMapper;
+
+  private final ObjectReader prescriptionReader;
+
+  private final ObjectWriter prescriptionListWriter;
+
+  /**
+   * Creates the reader and writer from the application ObjectMapper.
+   *
+   * @param objectMapper the application ObjectMapper
+   */
+  public PrescriptionJson(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.prescriptionReader = objectMapper.readerFor(Prescription.class)
+        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    this.prescriptionListWriter =
+        objectMapper.writerFor(new TypeReference<List<Prescription>>() { });
+  }
+
+  /**
+   * Deserializes a JSON array of prescriptions one element at a time with Jackson's streaming
+   * API, so no intermediate tree or map is built for the array.
+   *
+   * @param body the JSON array
+   * @return the typed prescriptions
+   * @throws IOException if the body cannot be read, is not a JSON array or has an element that
+ *     is neither an object nor null
+   */
+  public List<Prescription> readArray(InputStream body) throws IOException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new IOException("Expected a JSON array of prescriptions from PharmaId");
+      }
+
+      // like ObjectMapper.readValue: null elements are kept, anything else but objects fails,
+      // so a malformed body is never cached as a shorter list
+      final List<Prescription> prescriptions = new ArrayList<>();
+      JsonToken token = parser.nextToken();
+      while (token != JsonToken.END_ARRAY) {
+        if (token == JsonToken.START_OBJECT) {
+          prescriptions.add(prescriptionReader.readValue(parser));
+        } else if (token == JsonToken.VALUE_NULL) {
+          prescriptions.add(null);
+        } else {
+          throw MismatchedInputException.from(parser, Prescription.class,
+              "Expected a prescription object in the PharmaId array, got " + token);
+        }
+        token = parser.nextToken();
+      }
+      return prescriptions;
+    }
+  }
+
+  /**
+   * Serializes prescriptions as the API returns them.
+   *
+   * @param prescriptions the prescriptions
+   * @return the JSON bytes
+   * @throws JsonProcessingException if serialization fails
+   */
+  public byte[] write(List<Prescription> prescriptions) throws JsonProcessingException {
+    return prescriptionListWriter.writeValueAsBytes(prescriptions);
+  }
+}
@@ -0,0 +1,169 @@
+package com.bytecoders.emergencyaid.service;
+
+import com.bytecoders.emergencyaid.openapi.model.RefreshTokenResponse;
+import com.bytecoders.emergencyaid.repository.RefreshTokenRepository;
+import com.bytecoders.emergencyaid.repository.model.RefreshToken;
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Issues and exchanges refresh tokens. A refresh token is 256 random bits; only its HMAC is
+ * stored, so an exchange is one primary key lookup and one HMAC, without the BCrypt
+ * verification a login costs.
+ *
+ * <p>Tokens rotate: each exchange marks the presented token used and issues a new one in the
+ * same family. Presenting a used token means it was copied, so the whole family is revoked.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+  private static final String HMAC = "HmacSHA256";
+
+  private static final int TOKEN_BYTES = 32;
+
+  // unpadded base64url length of TOKEN_BYTES
+  private static final int TOKEN_LENGTH = 43;
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  // required, and not shared with the JWT signing key
+  @Value("${security.refresh-token.hmac-key}")
+  private String hmacKey;
+
+  @Value("${security.jwt.secret-key}")
+  private String jwtSecretKey;
+
+  @Value("${security.refresh-token.expiration-time:1209600000}")
+  private long expirationMs;
+
+  private SecretKeySpec key;
+
+  @PostConstruct
+  void init() {
+    if (hmacKey.isBlank() || hmacKey.equals(jwtSecretKey)) {
+      throw new IllegalStateException("security.refresh-token.hmac-key must be set to a secret "
+          + "of its own, not the JWT signing key");
+    }
+    key = new SecretKeySpec(Base64.getDecoder().decode(hmacKey), HMAC);
+  }
+
+  /**
+   * Issues a refresh token for a new login.
+   *
+   * @param userId the user who logged in
+   * @return the refresh token
+   */
+  public String issue(UUID userId) {
+    return issue(userId, UUID.randomUUID());
+  }
+
+  private String issue(UUID userId, UUID familyId) {
+    final byte[] bytes = new byte[TOKEN_BYTES];
+    RANDOM.nextBytes(bytes);
+    final String refreshToken = ENCODER.encodeToString(bytes);
+
+    final RefreshToken token = new RefreshToken();
+    token.setTokenHash(hash(refreshToken));
+    token.setUserId(userId);
+    token.setFamilyId(familyId);
+    token.setExpiresAt(Instant.now().plusMillis(expirationMs));
+    refreshTokenRepository.save(token);
+    return refreshToken;
+  }
+
+  /**
+   * Exchanges a refresh token for a new JWT and refresh token.
+   *
+   * @param refreshToken the refresh token
+   * @return the new tokens, or empty if the refresh token is unknown, expired or already used
+   */
+  @Transactional
+  public Optional<RefreshTokenResponse> refresh(String refreshToken) {
+    if (refreshToken == null || refreshToken.length() != TOKEN_LENGTH) {
+      return Optional.empty();
+    }
+
+    final String tokenHash = hash(refreshToken);
+    final Optional<RefreshToken> stored = refreshTokenRepository.findById(tokenHash);
+    final Instant now = Instant.now();
+    if (stored.isEmpty() || stored.get().getExpiresAt().isBefore(now)) {
+      return Optional.empty();
+    }
+
+    final RefreshToken token = stored.get();
+    if (refreshTokenRepository.markUsed(tokenHash, now) == 0) {
+      final int revoked = refreshTokenRepository.deleteFamily(token.getFamilyId());
+      log.warn("Refresh token reused for user {}; revoked {} tokens of its family",
+          token.getUserId(), revoked);
+      return Optional.empty();
+    }
+
+    final RefreshTokenResponse response = new RefreshTokenResponse();
+    response.setId(token.getUserId());
+    response.setToken(jwtUtils.generateToken(token.getUserId().toString()));
+    response.setRefreshToken(issue(token.getUserId(), token.getFamilyId()));
+    return Optional.of(response);
+  }
+
+  /**
+   * Revokes a refresh token and every other token of its family, eg on logout.
+   *
+   * @param refreshToken the refresh token
+   * @return false if the refresh token is unknown
+   */
+  @Transactional
+  public boolean revoke(String refreshToken) {
+    if (refreshToken == null || refreshToken.length() != TOKEN_LENGTH) {
+      return false;
+    }
+    final Optional<RefreshToken> stored = refreshTokenRepository.findById(hash(refreshToken));
+    stored.ifPresent(token -> refreshTokenRepository.deleteFamily(token.getFamilyId()));
+    return stored.isPresent();
+  }
+
+  /**
+   * Deletes expired refresh tokens, used or not.
+   */
+  @Transactional
+  @Scheduled(fixedDelayString = "${security.refresh-token.purge-interval-ms:3600000}")
+  public void purgeExpired() {
+    final int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+    if (deleted > 0) {
+      log.debug("Purged {} expired refresh tokens", deleted);
+    }
+  }
+
+  String hash(String refreshToken) {
+    try {
+      final Mac mac = Mac.getInstance(HMAC);
+      mac.init(key);
+      return ENCODER.encodeToString(mac.doFinal(refreshToken.getBytes(StandardCharsets.US_ASCII)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.bytecoders.emergencyaid.service;
+
+import com.bytecoders.emergencyaid.repository.RevokedTokenRepository;
+import com.bytecoders.emergencyaid.repository.model.RevokedToken;
+import com.bytecoders.emergencyaid.util.BloomFilter;
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Denylist of revoked JWT IDs. Revocations are stored in the database; each instance keeps a
+ * Bloom filter of the unexpired ones, so a token that was never revoked is accepted after one
+ * in-memory probe. Only a filter hit, revoked or a false positive, costs a primary key lookup.
+ *
+ * <p>The filter is loaded at startup, polled for new revocations and rebuilt periodically to
+ * drop expired ones. A revocation applies on this instance immediately and on the others
+ * within the poll interval.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+  @Autowired
+  private RevokedTokenRepository revokedTokenRepository;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${security.revocation.false-positive-rate:0.001}")
+  private double falsePositiveRate;
+
+  @Value("${security.revocation.min-capacity:10000}")
+  private long minCapacity;
+
+  // revoked_at comes from each instance's clock and rows commit out of order, so every poll
+  // re-reads this much before the last one
+  @Value("${security.revocation.sync-overlap-ms:30000}")
+  private long syncOverlapMs;
+
+  private volatile BloomFilter filter;
+
+  private volatile long capacity;
+
+  private final AtomicLong entries = new AtomicLong();
+
+  private Instant syncedAt;
+
+  private Counter revokedHits;
+
+  private Counter falsePositives;
+
+  @PostConstruct
+  void init() {
+    revokedHits = Counter.builder("emergencyaid.revocation.lookups")
+        .description("Bloom filter hits checked against the revoked token table")
+        .tag("result", "revoked")
+        .register(meterRegistry);
+    falsePositives = Counter.builder("emergencyaid.revocation.lookups")
+        .description("Bloom filter hits checked against the revoked token table")
+        .tag("result", "false_positive")
+        .register(meterRegistry);
+    rebuild();
+  }
+
+  /**
+   * Checks whether a token ID was revoked.
+   *
+   * @param jti the token ID; null for tokens issued before token IDs, which cannot be revoked
+   * @return true if the token was revoked
+   */
+  public boolean isRevoked(String jti) {
+    if (jti == null || !filter.mightContain(jti)) {
+      return false;
+    }
+    final boolean revoked = revokedTokenRepository.existsById(jti);
+    (revoked ? revokedHits : falsePositives).increment();
+    return revoked;
+  }
+
+  /**
+   * Revokes a JWT until it expires.
+   *
+   * @param token signed, unexpired JWT
+   * @return false if the token has no ID and cannot be revoked
+   */
+  public boolean revoke(String token) {
+    final String jti = jwtUtils.extractTokenId(token);
+    if (jti == null) {
+      return false;
+    }
+
+    final RevokedToken revokedToken = new RevokedToken();
+    revokedToken.setJti(jti);
+    revokedToken.setExpiresAt(jwtUtils.extractExpiration(token).toInstant());
+    revokedToken.setRevokedAt(Instant.now());
+    try {
+      revokedTokenRepository.saveAndFlush(revokedToken);
+    } catch (DataIntegrityViolationException e) {
+      log.debug("Token {} was already revoked", jti);
+    }
+    add(jti);
+    return true;
+  }
+
+  /**
+   * Adds revocations made since the last poll, including by other instances.
+   */
+  @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:5000}")
+  public synchronized void sync() {
+    if (entries.get() > capacity) {
+      rebuild();
+      return;
+    }
+    final Instant startedAt = Instant.now();
+    final List<String> revoked =
+        revokedTokenRepository.findIdsRevokedAfter(syncedAt.minusMillis(syncOverlapMs));
+    revoked.forEach(this::add);
+    syncedAt = startedAt;
+  }
+
+  /**
+   * Reloads the filter from the unexpired revocations, resized for their number.
+   */
+  @Scheduled(fixedDelayString = "${security.revocation.rebuild-interval-ms:3600000}",
+      initialDelayString = "${security.revocation.rebuild-interval-ms:3600000}")
+  public synchronized void rebuild() {
+    final Instant startedAt = Instant.now();
+    final List<String> unexpired = revokedTokenRepository.findUnexpiredIds(startedAt);
+    final long newCapacity = Math.max(minCapacity, 2L * unexpired.size());
+    final BloomFilter newFilter = BloomFilter.create(newCapacity, falsePositiveRate);
+    unexpired.forEach(newFilter::put);
+
+    filter = newFilter;
+    capacity = newCapacity;
+    entries.set(unexpired.size());
+    // a revocation committed during the load went into the previous filter; poll for it now
+    syncedAt = startedAt;
+    revokedTokenRepository.findIdsRevokedAfter(startedAt.minusMillis(syncOverlapMs))
+        .forEach(this::add);
+    log.info("Loaded {} revoked tokens into a {} bit filter", unexpired.size(),
+        newFilter.bitSize());
+  }
+
+  /**
+   * Deletes revocations of tokens that have expired anyway.
+   */
+  @Transactional
+  @Scheduled(fixedDelayString = "${security.revocation.rebuild-interval-ms:3600000}")
+  public void purgeExpired() {
+    final int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+    if (deleted > 0) {
+      log.debug("Purged {} expired token revocations", deleted);
+    }
+  }
+
+  // polls overlap, so most IDs they return are already in the filter
+  private void add(String jti) {
+    final BloomFilter current = filter;
+    if (!current.mightContain(jti)) {
+      current.put(jti);
+      entries.incrementAndGet();
+    }
+  }
+}
@@ -31,6 +31,9 @@ public class UserService {
   @Autowired
   private ServiceUtils serviceUtils;
 
+  @Autowired
+  private RefreshTokenService refreshTokenService;
+
   /**
    * Register new user service.
    *
@@ -68,6 +71,7 @@ public class UserService {
       loginResponse.setId(user.getId());
       loginResponse.setEmail(user.getEmail());
       loginResponse.setToken(token);
+      loginResponse.setRefreshToken(refreshTokenService.issue(user.getId()));
 
       return Optional.of(loginResponse);
     }
@@ -0,0 +1,264 @@
+package com.bytecoders.emergencyaid.service;
+
+import com.bytecoders.emergencyaid.openapi.model.Medication;
+import com.bytecoders.emergencyaid.openapi.model.Prescription;
+import com.bytecoders.emergencyaid.priority.Priority;
+import com.bytecoders.emergencyaid.repository.PatientRepository;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import com.bytecoders.emergencyaid.util.PasswordUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Warms a new instance before App Engine sends it traffic: fills the connection pools, runs the
+ * search queries so Hibernate compiles their plans, runs the JWT, BCrypt and JSON paths until
+ * they are compiled by the JIT, and opens a pooled connection to PharmaId.
+ *
+ * <p>Warmup runs once per instance; later calls return the first report. The endpoint is
+ * public so App Engine can call it, so it only serves requests from the configured source
+ * addresses, App Engine's internal range and loopback by default.
+ */
+@Slf4j
+@Service
+public class WarmupService {
+
+  /**
+   * Outcome of one warmup step.
+   *
+   * @param name       the step
+   * @param durationMs how long the step took
+   * @param error      the type of the exception the step failed with, or null if it succeeded
+   */
+  public record Step(String name, long durationMs, String error) {
+  }
+
+  /**
+   * Outcome of a warmup.
+   *
+   * @param successful whether all steps succeeded
+   * @param durationMs how long the whole warmup took
+   * @param steps      the steps in the order they ran
+   */
+  public record Report(boolean successful, long durationMs, List<Step> steps) {
+  }
+
+  @FunctionalInterface
+  private interface WarmupAction {
+    void run() throws Exception;
+  }
+
+  // a patient that does not exist; lookups still plan and execute the real queries
+  private static final String PHONE_NUMBER = "000-000-0000";
+
+  private static final String NAME = "warmup";
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private PatientRepository patientRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  @Autowired
+  private PasswordUtils passwordUtils;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PrescriptionJson prescriptionJson;
+
+  @Autowired
+  private RestTemplate restTemplate;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${pharmaid.api.base-url}")
+  private String pharmaidBaseUrl;
+
+  @Value("${emergencyaid.warmup.connections:4}")
+  private int connections;
+
+  @Value("${emergencyaid.warmup.iterations:200}")
+  private int iterations;
+
+  @Value("${emergencyaid.warmup.allowed-sources:0.1.0.0/24,127.0.0.1,::1}")
+  private String[] allowedSources;
+
+  private Report report;
+
+  /**
+   * Warms the instance, or returns the report of the warmup that already ran.
+   *
+   * @return per-step timings
+   */
+  public synchronized Report warmup() {
+    if (report == null) {
+      report = runSteps();
+    }
+    return report;
+  }
+
+  /**
+   * Checks whether a client may trigger the warmup: App Engine sends warmup requests from its
+   * internal 0.1.0.x addresses, which outside clients cannot use.
+   *
+   * @param remoteAddress the client IP address, as resolved from the forwarded headers
+   * @return whether the address is in one of the allowed sources
+   */
+  public boolean isAllowedSource(String remoteAddress) {
+    for (String source : allowedSources) {
+      if (new IpAddressMatcher(source.trim()).matches(remoteAddress)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Report runSteps() {
+    final long start = System.nanoTime();
+    final List<Step> steps = new ArrayList<>();
+    steps.add(step("connection_pool", this::fillConnectionPool));
+    steps.add(step("patient_queries", this::runPatientQueries));
+    steps.add(step("jwt", this::runJwt));
+    steps.add(step("bcrypt", this::runBcrypt));
+    steps.add(step("json", this::runJson));
+    steps.add(step("pharmaid_connection", this::openPharmaidConnection));
+
+    final Report result = new Report(steps.stream().allMatch(s -> s.error() == null),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), steps);
+    log.info("Warmup finished in {} ms: {}", result.durationMs(), steps);
+    return result;
+  }
+
+  private Step step(String name, WarmupAction action) {
+    final long start = System.nanoTime();
+    String error = null;
+    try {
+      action.run();
+    } catch (Exception e) {
+      // a failed step leaves that path cold but must not keep the instance from serving
+      log.warn("Warmup step {} failed", name, e);
+      // the exception type only; messages can carry hosts or SQL and stay in the log
+      error = e.getClass().getSimpleName();
+    }
+    final long durationNanos = System.nanoTime() - start;
+    Timer.builder("emergencyaid.warmup.step")
+        .description("Duration of instance warmup steps")
+        .tag("step", name)
+        .tag("outcome", error == null ? "success" : "failure")
+        .register(meterRegistry)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    return new Step(name, TimeUnit.NANOSECONDS.toMillis(durationNanos), error);
+  }
+
+  // the connections are held in a list and all closed in the finally block
+  @SuppressWarnings("PMD.CloseResource")
+  private void fillConnectionPool() throws SQLException {
+    // holding the connections at once makes the pool open new ones instead of reusing one;
+    // at critical priority, so the connections other requests leave free are filled too
+    final List<Connection> held = new ArrayList<>(connections);
+    try (Priority.Scope ignored = Priority.CRITICAL.enter()) {
+      for (int i = 0; i < connections; i++) {
+        final Connection connection = dataSource.getConnection();
+        held.add(connection);
+        connection.isValid(1);
+      }
+    } finally {
+      for (Connection connection : held) {
+        connection.close();
+      }
+    }
+  }
+
+  private void runPatientQueries() {
+    // read-only, like the search endpoints, so a read replica is warmed as well
+    final TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    final UUID id = new UUID(0, 0);
+    for (int i = 0; i < Math.max(1, iterations / 10); i++) {
+      readOnly.executeWithoutResult(status -> {
+        patientRepository.findSummaryById(id);
+        patientRepository.findSummariesByIdIn(List.of(id));
+        patientRepository.findSummariesAfter(id, PageRequest.of(0, 1));
+        patientRepository.findByPhoneNumber(PHONE_NUMBER);
+        patientRepository.findByFirstNameIgnoreCase(NAME);
+        patientRepository.findByLastNameIgnoreCase(NAME);
+        patientRepository.findByFullNameIgnoreCase(NAME, NAME);
+      });
+    }
+  }
+
+  private void runJwt() {
+    final String userId = UUID.randomUUID().toString();
+    for (int i = 0; i < iterations; i++) {
+      if (!jwtUtils.isTokenValid(jwtUtils.generateToken(userId), userId)) {
+        throw new IllegalStateException("Generated JWT did not verify");
+      }
+    }
+  }
+
+  private void runBcrypt() {
+    // a few rounds only: each one takes as long as a login
+    final String hash = passwordUtils.hashPassword(NAME);
+    for (int i = 0; i < 3; i++) {
+      passwordUtils.verifyPassword(NAME, hash);
+    }
+  }
+
+  private void runJson() throws Exception {
+    final List<PatientSummary> patients = new ArrayList<>();
+    final List<Prescription> prescriptions = new ArrayList<>();
+    final Medication medication = new Medication();
+    medication.setMedicationName(NAME);
+    for (int i = 0; i < 20; i++) {
+      patients.add(new PatientSummary(UUID.randomUUID(), NAME, NAME, PHONE_NUMBER, null, 0L));
+      final Prescription prescription = new Prescription();
+      prescription.setId(UUID.randomUUID());
+      prescription.setMedication(medication);
+      prescription.setDosage(i);
+      prescriptions.add(prescription);
+    }
+    for (int i = 0; i < iterations; i++) {
+      objectMapper.writeValueAsBytes(patients);
+      prescriptionJson.readArray(new ByteArrayInputStream(prescriptionJson.write(prescriptions)));
+    }
+  }
+
+  private void openPharmaidConnection() {
+    try {
+      // any response will do: the point is the TLS handshake and a connection left in the pool
+      restTemplate.execute(URI.create(pharmaidBaseUrl), HttpMethod.HEAD, null, null);
+    } catch (RestClientResponseException e) {
+      log.debug("PharmaId answered the warmup request with {}", e.getStatusCode());
+    }
+  }
+}
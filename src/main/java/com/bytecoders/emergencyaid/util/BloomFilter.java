@@ -0,0 +1,106 @@
+package com.bytecoders.emergencyaid.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of strings. {@link #mightContain} never returns false for a string that
+ * was added, and returns true for other strings with about the false positive rate it was sized
+ * for. Adds and probes are lock-free and may run concurrently.
+ */
+public final class BloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray words;
+
+  private final long bits;
+
+  private final int hashes;
+
+  private BloomFilter(long bits, int hashes) {
+    this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+    this.bits = (long) words.length() << 6;
+    this.hashes = hashes;
+  }
+
+  /**
+   * Creates a filter sized for the expected number of strings and false positive rate.
+   *
+   * @param expectedInsertions strings the filter should hold before its false positive rate rises
+   * @param falsePositiveRate  false positive rate at {@code expectedInsertions}, in (0, 1)
+   * @return an empty filter
+   */
+  public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+    }
+    final long n = Math.max(1, expectedInsertions);
+    final long bits = Math.max(64, (long) (-n * Math.log(falsePositiveRate) / (LN2 * LN2)));
+    final int hashes = Math.max(1, (int) Math.round((double) bits / n * LN2));
+    return new BloomFilter(bits, hashes);
+  }
+
+  /**
+   * Adds a string.
+   *
+   * @param value the string
+   */
+  public void put(String value) {
+    final long hash1 = fmix64(hash(value));
+    final long hash2 = fmix64(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+    for (int i = 0; i < hashes; i++) {
+      final long bit = Long.remainderUnsigned(hash1 + i * hash2, bits);
+      final int index = (int) (bit >>> 6);
+      final long mask = 1L << bit;
+      long word = words.get(index);
+      while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+        word = words.get(index);
+      }
+    }
+  }
+
+  /**
+   * Probes for a string.
+   *
+   * @param value the string
+   * @return false if the string was never added; true if it probably was
+   */
+  public boolean mightContain(String value) {
+    final long hash1 = fmix64(hash(value));
+    final long hash2 = fmix64(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+    for (int i = 0; i < hashes; i++) {
+      final long bit = Long.remainderUnsigned(hash1 + i * hash2, bits);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Size of the filter.
+   *
+   * @return the number of bits
+   */
+  public long bitSize() {
+    return bits;
+  }
+
+  private static long hash(String value) {
+    long hash = 0xCBF29CE484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+    }
+    return hash;
+  }
+
+  // MurmurHash3 finalizer: spreads FNV-1a's weak low bits across the whole word
+  private static long fmix64(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB93FE1A85379L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,63 @@
+package com.bytecoders.emergencyaid.util;
+
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+
+/**
+ * Strong ETags for API responses. Returned through {@code ResponseEntity.eTag(..)}, so Spring
+ * MVC answers a matching {@code If-None-Match} with 304 before serializing the body.
+ */
+public final class Etags {
+
+  // 128 bits of SHA-256 is plenty to tell representations apart
+  private static final int ETAG_BYTES = 16;
+
+  private Etags() {
+  }
+
+  /**
+   * ETag of a list of patients, from their IDs and entity versions in order. Any registration
+   * or update that changes the list changes the ETag.
+   *
+   * @param patients the patients in the response
+   * @return the quoted ETag
+   */
+  public static String ofPatients(Collection<PatientSummary> patients) {
+    final MessageDigest digest = sha256();
+    final ByteBuffer row = ByteBuffer.allocate(3 * Long.BYTES);
+    for (PatientSummary patient : patients) {
+      row.clear();
+      row.putLong(patient.id().getMostSignificantBits())
+          .putLong(patient.id().getLeastSignificantBits())
+          .putLong(patient.version() == null ? 0 : patient.version());
+      digest.update(row.array());
+    }
+    return quote(digest.digest());
+  }
+
+  /**
+   * ETag of serialized content.
+   *
+   * @param content the response body bytes
+   * @return the quoted ETag
+   */
+  public static String ofContent(byte[] content) {
+    return quote(sha256().digest(content));
+  }
+
+  private static String quote(byte[] hash) {
+    return '"' + HexFormat.of().formatHex(hash, 0, ETAG_BYTES) + '"';
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
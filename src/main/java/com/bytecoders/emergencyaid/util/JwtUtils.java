@@ -7,6 +7,7 @@ import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -24,13 +25,15 @@ public class JwtUtils {
   private long jwtExpiration;
 
   /**
-   * Generate a JWT token with a specified user identifier.
+   * Generate a JWT token with a specified user identifier and a random token ID, by which the
+   * token can be revoked.
    *
    * @param userId Unique identifier for the user.
    * @return signed JWT as a String, with userId as the subject.
    */
   public String generateToken(String userId) {
-    return Jwts.builder().setSubject(userId).setIssuedAt(new Date(System.currentTimeMillis()))
+    return Jwts.builder().setId(UUID.randomUUID().toString()).setSubject(userId)
+        .setIssuedAt(new Date(System.currentTimeMillis()))
         .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
         .signWith(getSignInKey(), SignatureAlgorithm.HS256).compact();
   }
@@ -39,6 +42,20 @@ public class JwtUtils {
     return getClaims(token).getSubject();
   }
 
+  /**
+   * Extract the token ID (jti claim).
+   *
+   * @param token signed JWT
+   * @return the token ID, or null for tokens issued without one
+   */
+  public String extractTokenId(String token) {
+    return getClaims(token).getId();
+  }
+
+  public Date extractExpiration(String token) {
+    return getClaims(token).getExpiration();
+  }
+
   public boolean isTokenValid(String token, String userId) {
     return extractUserId(token).equals(userId) && !isTokenExpired(token);
   }
@@ -50,7 +67,10 @@ public class JwtUtils {
    */
   public String[] getPublicEndpoints() {
     return new String[]{"/hello",
+        "/_ah/warmup",
+        "/actuator/health",
         "/login",
+        "/token/refresh",
         "/register",
         "/patients/new",
         "/emergency-aid-docs",
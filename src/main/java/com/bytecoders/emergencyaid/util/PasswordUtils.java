@@ -1,16 +1,59 @@
 package com.bytecoders.emergencyaid.util;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.mindrot.jbcrypt.BCrypt;
 
 /**
  * Utils to hash passwords with salt and verify hashed passwords.
  */
 public class PasswordUtils {
+
+  // jBCrypt's default cost; each increment doubles hashing and verification time
+  public static final int DEFAULT_LOG_ROUNDS = 10;
+
+  private final Timer hashTimer;
+  private final MeterRegistry meterRegistry;
+  private final int logRounds;
+
+  public PasswordUtils() {
+    this(Metrics.globalRegistry, DEFAULT_LOG_ROUNDS);
+  }
+
+  /**
+   * Creates PasswordUtils that records BCrypt hash and verify timings.
+   *
+   * @param meterRegistry registry for the BCrypt timers
+   * @param logRounds     BCrypt cost used for new hashes, between 4 and 30
+   */
+  public PasswordUtils(MeterRegistry meterRegistry, int logRounds) {
+    this.meterRegistry = meterRegistry;
+    this.logRounds = logRounds;
+    this.hashTimer = Timer.builder("emergencyaid.password.hash")
+        .description("BCrypt password hashing")
+        .tag("log_rounds", String.valueOf(logRounds))
+        .register(meterRegistry);
+  }
+
   public String hashPassword(String password) {
-    return BCrypt.hashpw(password, BCrypt.gensalt());
+    return hashTimer.record(() -> BCrypt.hashpw(password, BCrypt.gensalt(logRounds)));
   }
 
+  /**
+   * Verify a password against a BCrypt hash.
+   *
+   * @param password       the plaintext password
+   * @param hashedPassword the stored BCrypt hash
+   * @return true if the password matches the hash, else false
+   */
   public boolean verifyPassword(String password, String hashedPassword) {
-    return BCrypt.checkpw(password, hashedPassword);
+    final Timer.Sample sample = Timer.start(meterRegistry);
+    final boolean matches = BCrypt.checkpw(password, hashedPassword);
+    sample.stop(Timer.builder("emergencyaid.password.verify")
+        .description("BCrypt password verification")
+        .tag("outcome", matches ? "match" : "mismatch")
+        .register(meterRegistry));
+    return matches;
   }
 }
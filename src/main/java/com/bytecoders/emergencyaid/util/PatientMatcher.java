@@ -0,0 +1,207 @@
+package com.bytecoders.emergencyaid.util;
+
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+
+/** Normalization, blocking and similarity scoring for patient de-duplication. */
+@Component
+public class PatientMatcher {
+
+  private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+  private static final Pattern NON_LETTERS = Pattern.compile("[^a-z]+");
+
+  private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+
+  // Soundex digit for each letter a-z; '0' for vowels, SOUNDEX_IGNORED for h and w
+  private static final String SOUNDEX_CODES = "0123012-02245501262301-202";
+
+  private static final char SOUNDEX_IGNORED = '-';
+
+  private static final double NAME_WEIGHT = 0.85;
+
+  private static final double PHONE_WEIGHT = 0.15;
+
+  /**
+   * Normalizes a name for comparison: accents removed, lower case, letters only.
+   *
+   * @param name the name as registered
+   * @return the normalized name, empty if it has no letters
+   */
+  public String normalizeName(String name) {
+    if (name == null) {
+      return "";
+    }
+    final String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+    final String withoutMarks = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+    return NON_LETTERS.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll("");
+  }
+
+  /**
+   * Normalizes a phone number for comparison: digits only.
+   *
+   * @param phoneNumber the phone number as registered
+   * @return the digits of the phone number
+   */
+  public String normalizePhone(String phoneNumber) {
+    return phoneNumber == null ? "" : NON_DIGITS.matcher(phoneNumber).replaceAll("");
+  }
+
+  /**
+   * Computes the blocking keys of a patient. Only patients sharing at least one key are scored
+   * against each other:
+   * <ul>
+   *   <li>last name sound and first initial, catching spelling variants of the last name</li>
+   *   <li>first name sound and last initial, which also matches first and last name swapped</li>
+   *   <li>first name sound and the last four phone digits, catching changed last names</li>
+   * </ul>
+   *
+   * @param patient the patient
+   * @return the patient's blocking keys, at most 64 characters each
+   */
+  public Set<String> blockingKeys(PatientSummary patient) {
+    final String first = normalizeName(patient.firstName());
+    final String last = normalizeName(patient.lastName());
+    final String phone = normalizePhone(patient.phoneNumber());
+
+    final Set<String> keys = new LinkedHashSet<>();
+    if (!first.isEmpty() && !last.isEmpty()) {
+      keys.add("name:" + soundex(last) + ":" + first.charAt(0));
+      keys.add("name:" + soundex(first) + ":" + last.charAt(0));
+    }
+    if (!first.isEmpty() && phone.length() >= 4) {
+      keys.add("phone:" + soundex(first) + ":" + phone.substring(phone.length() - 4));
+    }
+    return keys;
+  }
+
+  /**
+   * Scores how likely two patients are the same person, from 0 to 1. Patients linked to the
+   * same PharmaId account score 1; otherwise the score combines the Jaro-Winkler similarity of
+   * their names, in either order, with the share of matching phone digits.
+   *
+   * @param a a patient
+   * @param b another patient
+   * @return the match score
+   */
+  public double score(PatientSummary a, PatientSummary b) {
+    if (a.pharmaId() != null && a.pharmaId().equals(b.pharmaId())) {
+      return 1.0;
+    }
+
+    final String firstA = normalizeName(a.firstName());
+    final String lastA = normalizeName(a.lastName());
+    final String firstB = normalizeName(b.firstName());
+    final String lastB = normalizeName(b.lastName());
+    final double direct = (jaroWinkler(firstA, firstB) + jaroWinkler(lastA, lastB)) / 2;
+    final double swapped = (jaroWinkler(firstA, lastB) + jaroWinkler(lastA, firstB)) / 2;
+
+    return NAME_WEIGHT * Math.max(direct, swapped)
+        + PHONE_WEIGHT * digitSimilarity(normalizePhone(a.phoneNumber()),
+            normalizePhone(b.phoneNumber()));
+  }
+
+  /**
+   * American Soundex code of a normalized name, eg "r163" for "robert" and "rupert".
+   *
+   * @param name a normalized, non-empty name
+   * @return the first letter followed by three digits
+   */
+  static String soundex(String name) {
+    final StringBuilder code = new StringBuilder(4).append(name.charAt(0));
+    char previous = SOUNDEX_CODES.charAt(name.charAt(0) - 'a');
+    for (int i = 1; i < name.length() && code.length() < 4; i++) {
+      final char digit = SOUNDEX_CODES.charAt(name.charAt(i) - 'a');
+      if (digit == SOUNDEX_IGNORED) {
+        // h and w do not separate letters with the same code
+        continue;
+      }
+      if (digit != '0' && digit != previous) {
+        code.append(digit);
+      }
+      previous = digit;
+    }
+    while (code.length() < 4) {
+      code.append('0');
+    }
+    return code.toString();
+  }
+
+  /**
+   * Jaro-Winkler similarity of two strings, from 0 (nothing in common) to 1 (equal).
+   *
+   * @param a a string
+   * @param b another string
+   * @return the similarity
+   */
+  static double jaroWinkler(String a, String b) {
+    if (a.equals(b)) {
+      return 1.0;
+    }
+    if (a.isEmpty() || b.isEmpty()) {
+      return 0.0;
+    }
+
+    final int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+    final boolean[] matchedA = new boolean[a.length()];
+    final boolean[] matchedB = new boolean[b.length()];
+    int matches = 0;
+    for (int i = 0; i < a.length(); i++) {
+      final int end = Math.min(b.length(), i + window + 1);
+      for (int j = Math.max(0, i - window); j < end; j++) {
+        if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+          matchedA[i] = true;
+          matchedB[j] = true;
+          matches++;
+          break;
+        }
+      }
+    }
+    if (matches == 0) {
+      return 0.0;
+    }
+
+    int transpositions = 0;
+    for (int i = 0, j = 0; i < a.length(); i++) {
+      if (matchedA[i]) {
+        while (!matchedB[j]) {
+          j++;
+        }
+        if (a.charAt(i) != b.charAt(j)) {
+          transpositions++;
+        }
+        j++;
+      }
+    }
+
+    final double m = matches;
+    final double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+
+    int prefix = 0;
+    while (prefix < Math.min(4, Math.min(a.length(), b.length()))
+        && a.charAt(prefix) == b.charAt(prefix)) {
+      prefix++;
+    }
+    return jaro + prefix * 0.1 * (1 - jaro);
+  }
+
+  private static double digitSimilarity(String a, String b) {
+    if (a.isEmpty() || b.isEmpty()) {
+      return 0.0;
+    }
+    // compare right-aligned so a missing country code does not shift every digit
+    int same = 0;
+    final int length = Math.min(a.length(), b.length());
+    for (int i = 1; i <= length; i++) {
+      if (a.charAt(a.length() - i) == b.charAt(b.length() - i)) {
+        same++;
+      }
+    }
+    return (double) same / Math.max(a.length(), b.length());
+  }
+}
@@ -0,0 +1,74 @@
+package com.bytecoders.emergencyaid.util;
+
+import java.util.List;
+import java.util.Locale;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Encodings the API can answer in, chosen by the {@code Accept} header: JSON, or the binary
+ * CBOR and Smile encodings of the same Jackson model for clients that want smaller, faster to
+ * parse bodies. Spring MVC picks the message converter itself; this mirrors its choice where a
+ * handler needs to know it up front, eg to give each encoding its own ETag.
+ */
+public enum ResponseFormat {
+
+  JSON(MediaType.APPLICATION_JSON),
+  CBOR(MediaType.APPLICATION_CBOR),
+  SMILE(new MediaType("application", "x-jackson-smile"));
+
+  private final MediaType mediaType;
+
+  ResponseFormat(MediaType mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Chooses the encoding of a response the way Spring MVC does: the highest quality, then
+   * most specific, acceptable type wins, and wildcards are answered with JSON.
+   *
+   * @param accept the request's Accept header, or null
+   * @return the encoding; JSON if the header is missing, invalid or names none of them
+   */
+  public static ResponseFormat negotiate(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return JSON;
+    }
+    final List<MediaType> acceptable;
+    try {
+      acceptable = MediaType.parseMediaTypes(accept);
+      MimeTypeUtils.sortBySpecificity(acceptable);
+    } catch (InvalidMediaTypeException | InvalidMimeTypeException e) {
+      // Spring MVC rejects the header itself
+      return JSON;
+    }
+    for (MediaType type : acceptable) {
+      for (ResponseFormat format : values()) {
+        if (type.includes(format.mediaType)) {
+          return format;
+        }
+      }
+    }
+    return JSON;
+  }
+
+  /**
+   * ETag of this encoding of a representation. Strong ETags must differ between encodings;
+   * JSON keeps the ETag unchanged.
+   *
+   * @param etag the quoted ETag of the representation
+   * @return the quoted ETag of this encoding
+   */
+  public String etagFor(String etag) {
+    if (this == JSON) {
+      return etag;
+    }
+    return etag.substring(0, etag.length() - 1) + '-' + name().toLowerCase(Locale.ROOT) + '"';
+  }
+}
@@ -0,0 +1,59 @@
+package com.bytecoders.emergencyaid.util;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond timestamp,
+ * 12 bits of sub-millisecond precision, then 62 random bits. IDs from one JVM are strictly
+ * increasing; if the clock stalls or moves back the previous timestamp is incremented instead.
+ */
+public final class UuidV7 {
+
+  private static final int VERSION = 7;
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  // last issued timestamp as (unix millis << 12 | sub-millisecond fraction)
+  private static final AtomicLong LAST_TIMESTAMP = new AtomicLong();
+
+  private static final Clock CLOCK = Clock.systemUTC();
+
+  private UuidV7() {
+  }
+
+  /**
+   * Generates a new version 7 UUID.
+   *
+   * @return the UUID
+   */
+  public static UUID generate() {
+    final Instant now = CLOCK.instant();
+    final long candidate = (now.toEpochMilli() << 12)
+        | ((now.getNano() % 1_000_000L) * 4096 / 1_000_000L);
+    final long timestamp = LAST_TIMESTAMP.updateAndGet(last -> Math.max(candidate, last + 1));
+
+    // 48 bits of millis, 4 bits of version, 12 bits of sub-millisecond fraction
+    final long msb = ((timestamp >>> 12) << 16) | ((long) VERSION << 12) | (timestamp & 0xFFFL);
+    // 2 bits of variant, 62 random bits
+    final long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Extracts the Unix millisecond timestamp of a version 7 UUID.
+   *
+   * @param uuid a version 7 UUID
+   * @return milliseconds since the epoch at which the UUID was generated
+   * @throws IllegalArgumentException if the UUID is not version 7
+   */
+  public static long timestampMillis(UUID uuid) {
+    if (uuid.version() != VERSION) {
+      throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+    }
+    return uuid.getMostSignificantBits() >>> 16;
+  }
+}
@@ -0,0 +1,22 @@
+-- Initial EmergencyAid schema for the embedded H2 database used by benchmarks and load tests.
+-- Mirrors db/migration/postgresql; H2 has no expression indexes, so the name indexes are on the
+-- plain columns.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id         UUID         PRIMARY KEY,
+    email           VARCHAR(255) NOT NULL,
+    hashed_password VARCHAR(255) NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_uidx ON users (email);
+
+CREATE TABLE IF NOT EXISTS patients (
+    patient_id        UUID         PRIMARY KEY,
+    first_name        VARCHAR(255) NOT NULL,
+    last_name         VARCHAR(255) NOT NULL,
+    phone_number      VARCHAR(255) NOT NULL,
+    patient_pharma_id VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS patients_first_last_name_idx ON patients (first_name, last_name);
+CREATE INDEX IF NOT EXISTS patients_last_name_idx ON patients (last_name);
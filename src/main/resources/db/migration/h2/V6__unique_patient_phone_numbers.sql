@@ -0,0 +1,3 @@
+-- One patient per phone number. The embedded H2 database always starts empty, so there are no
+-- duplicates to check for; see db/migration/postgresql.
+CREATE UNIQUE INDEX IF NOT EXISTS patients_phone_number_uidx ON patients (phone_number);
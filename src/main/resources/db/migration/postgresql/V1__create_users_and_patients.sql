@@ -0,0 +1,25 @@
+-- Initial EmergencyAid schema. Safe to run on databases previously created by Hibernate
+-- ddl-auto=update: tables and indexes are only created if they do not exist yet.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id         UUID         PRIMARY KEY,
+    email           VARCHAR(255) NOT NULL,
+    hashed_password VARCHAR(255) NOT NULL
+);
+
+-- login looks users up by email
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_uidx ON users (email);
+
+CREATE TABLE IF NOT EXISTS patients (
+    patient_id        UUID         PRIMARY KEY,
+    first_name        VARCHAR(255) NOT NULL,
+    last_name         VARCHAR(255) NOT NULL,
+    phone_number      VARCHAR(255) NOT NULL,
+    patient_pharma_id VARCHAR(255)
+);
+
+-- case-insensitive name search compares LOWER(column) = LOWER(:name). The composite index
+-- serves first-name and full-name searches, the second one last-name searches.
+CREATE INDEX IF NOT EXISTS patients_lower_first_last_name_idx
+    ON patients (LOWER(first_name), LOWER(last_name));
+CREATE INDEX IF NOT EXISTS patients_lower_last_name_idx ON patients (LOWER(last_name));
@@ -0,0 +1,35 @@
+-- Tables for the patient de-duplication job (PatientDedupJob).
+
+-- Blocking keys of the patients the job has processed. A new patient is only scored against
+-- processed patients that share one of its keys.
+CREATE TABLE patient_blocking_keys (
+    block_key  VARCHAR(64) NOT NULL,
+    patient_id UUID        NOT NULL REFERENCES patients (patient_id) ON DELETE CASCADE,
+    PRIMARY KEY (block_key, patient_id)
+);
+
+CREATE INDEX patient_blocking_keys_patient_id_idx ON patient_blocking_keys (patient_id);
+
+-- Likely duplicates for review; patient_id is the earlier registration.
+CREATE TABLE patient_merge_suggestions (
+    suggestion_id        UUID                     PRIMARY KEY,
+    patient_id           UUID                     NOT NULL
+        REFERENCES patients (patient_id) ON DELETE CASCADE,
+    duplicate_patient_id UUID                     NOT NULL
+        REFERENCES patients (patient_id) ON DELETE CASCADE,
+    score                DOUBLE PRECISION         NOT NULL,
+    created_at           TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT patient_merge_suggestions_pair_uidx UNIQUE (patient_id, duplicate_patient_id)
+);
+
+CREATE INDEX patient_merge_suggestions_score_idx ON patient_merge_suggestions (score DESC);
+
+-- Last patient ID processed by each job, so runs resume where the previous one stopped.
+CREATE TABLE dedup_checkpoints (
+    job_name        VARCHAR(64)              PRIMARY KEY,
+    last_patient_id UUID,
+    updated_at      TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+INSERT INTO dedup_checkpoints (job_name, last_patient_id, updated_at)
+VALUES ('patient-dedup', NULL, CURRENT_TIMESTAMP);
@@ -0,0 +1,3 @@
+-- Optimistic-lock version of each patient, bumped on every update. Patient list and search
+-- ETags are computed from patient IDs and versions.
+ALTER TABLE patients ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
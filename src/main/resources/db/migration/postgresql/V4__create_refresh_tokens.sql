@@ -0,0 +1,12 @@
+-- Refresh tokens (RefreshTokenService). Only an HMAC of each token is stored. Tokens are
+-- single-use; used ones are kept until they expire so a replay can be detected, which revokes
+-- every token of the same family (login).
+CREATE TABLE refresh_tokens (
+    token_hash VARCHAR(43)              PRIMARY KEY,
+    user_id    UUID                     NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    family_id  UUID                     NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    used_at    TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX refresh_tokens_family_id_idx ON refresh_tokens (family_id);
@@ -0,0 +1,9 @@
+-- Denylist of revoked JWT IDs (TokenRevocationService). A row is only needed until the token
+-- would have expired anyway. Instances poll for rows by revoked_at to update their Bloom filter.
+CREATE TABLE revoked_tokens (
+    jti        VARCHAR(36)              PRIMARY KEY,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX revoked_tokens_revoked_at_idx ON revoked_tokens (revoked_at);
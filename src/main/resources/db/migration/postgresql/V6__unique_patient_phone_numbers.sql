@@ -0,0 +1,20 @@
+-- One patient per phone number; registering a duplicate raises
+-- DataIntegrityViolationException. Databases adopted from Hibernate ddl-auto=update
+-- (baseline-on-migrate) were never constrained and may hold duplicates: stop with a clear
+-- message instead of a bare unique violation. Phone numbers are not logged; list them with
+--   SELECT phone_number, COUNT(*) FROM patients GROUP BY phone_number HAVING COUNT(*) > 1;
+-- then merge or correct those patients and restart.
+DO $$
+DECLARE
+    duplicated INTEGER;
+BEGIN
+    SELECT COUNT(*) INTO duplicated
+    FROM (SELECT phone_number FROM patients GROUP BY phone_number HAVING COUNT(*) > 1) d;
+    IF duplicated > 0 THEN
+        RAISE EXCEPTION '% phone numbers are shared by more than one patient', duplicated
+            USING HINT = 'Merge or correct those patients before patients_phone_number_uidx '
+                || 'can be created, see V6__unique_patient_phone_numbers.sql';
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS patients_phone_number_uidx ON patients (phone_number);
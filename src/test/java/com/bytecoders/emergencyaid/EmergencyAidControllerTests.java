@@ -1,25 +1,43 @@
 package com.bytecoders.emergencyaid;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.bytecoders.emergencyaid.events.PatientEventBroadcaster;
 import com.bytecoders.emergencyaid.openapi.model.LoginUserRequest;
 import com.bytecoders.emergencyaid.openapi.model.LoginUserResponse;
+import com.bytecoders.emergencyaid.openapi.model.LogoutRequest;
 import com.bytecoders.emergencyaid.openapi.model.RegisterUserRequest;
+import com.bytecoders.emergencyaid.openapi.model.RevokeTokenRequest;
+import com.bytecoders.emergencyaid.priority.PriorityLanes;
 import com.bytecoders.emergencyaid.repository.model.User;
 import com.bytecoders.emergencyaid.service.PatientService;
+import com.bytecoders.emergencyaid.service.PrescriptionCache;
+import com.bytecoders.emergencyaid.service.RefreshTokenService;
+import com.bytecoders.emergencyaid.service.TokenRevocationService;
 import com.bytecoders.emergencyaid.service.UserService;
+import com.bytecoders.emergencyaid.service.WarmupService;
 import com.bytecoders.emergencyaid.util.JwtUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 /**
  * This class represents a set of unit tests for {@code EmergencyAidController} class.
@@ -109,6 +127,95 @@ public class EmergencyAidControllerTests {
     assertEquals("Invalid email or password", response.getBody());
   }
 
+  /**
+   * Test that logout revokes the JWT and the refresh token family.
+   */
+  @Test
+  void testLogoutRevokesTokens() {
+    final LogoutRequest request = new LogoutRequest();
+    request.setRefreshToken("refreshToken");
+
+    final ResponseEntity<?> response = testController.logoutUser("Bearer jwt", request);
+    assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    verify(tokenRevocationService).revoke("jwt");
+    verify(refreshTokenService).revoke("refreshToken");
+  }
+
+  /**
+   * Test that a user cannot revoke another user's token.
+   */
+  @Test
+  void testRevokeOtherUsersTokenForbidden() {
+    final RevokeTokenRequest request = new RevokeTokenRequest();
+    request.setToken("jwt");
+
+    when(jwtUtils.extractUserId("jwt")).thenReturn("another-user");
+    when(jwtUtils.getLoggedInUserId()).thenReturn(MOCK_UUID.toString());
+
+    final ResponseEntity<?> response = testController.revokeToken(request);
+    assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    assertEquals("Token belongs to another user", response.getBody());
+  }
+
+  /**
+   * Test that the warmup only runs for requests from App Engine.
+   */
+  @Test
+  void testWarmupFromOtherSourceNotFound() {
+    final MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setRemoteAddr("203.0.113.7");
+    when(warmupService.isAllowedSource("203.0.113.7")).thenReturn(false);
+
+    final ResponseEntity<?> response = testController.warmup(request);
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    verify(warmupService, never()).warmup();
+  }
+
+  /**
+   * Test that a warmup request from App Engine gets the warmup report.
+   */
+  @Test
+  void testWarmupFromAppEngine() {
+    final MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setRemoteAddr("0.1.0.3");
+    final WarmupService.Report report = new WarmupService.Report(true, 5, List.of());
+    when(warmupService.isAllowedSource("0.1.0.3")).thenReturn(true);
+    when(warmupService.warmup()).thenReturn(report);
+
+    final ResponseEntity<?> response = testController.warmup(request);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(report, response.getBody());
+  }
+
+  /**
+   * Test that prescriptions asked for in CBOR get an ETag of their own and vary by Accept.
+   */
+  @Test
+  void testPrescriptionsNegotiatedEtag() {
+    when(patientService.getVersionedPatientPrescriptions(MOCK_UUID))
+        .thenReturn(new PrescriptionCache.Entry(List.of(), "\"abc\"", 0));
+
+    final ResponseEntity<?> json = testController.getPatientPrescriptions(MOCK_UUID, null, null);
+    final ResponseEntity<?> cbor =
+        testController.getPatientPrescriptions(MOCK_UUID, "application/cbor", null);
+
+    assertEquals("\"abc\"", json.getHeaders().getETag());
+    assertEquals("\"abc-cbor\"", cbor.getHeaders().getETag());
+    assertEquals(List.of(HttpHeaders.ACCEPT), cbor.getHeaders().getVary());
+  }
+
+  /**
+   * Test that an unknown patient field is rejected before searching.
+   */
+  @Test
+  void testSearchPatientsUnknownField() {
+    final ResponseEntity<?> response = testController.searchPatients("Bob", "id,version", null);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals("Unknown patient field: version", response.getBody());
+    verify(patientService, never()).searchPatients(any(), any());
+  }
+
   @Autowired
   public EmergencyAidController testController;
 
@@ -118,9 +225,34 @@ public class EmergencyAidControllerTests {
   @MockBean
   private PatientService patientService;
 
+  @MockBean
+  private RefreshTokenService refreshTokenService;
+
+  @MockBean
+  private TokenRevocationService tokenRevocationService;
+
   @MockBean
   private JwtUtils jwtUtils;
 
+  @MockBean
+  private PatientEventBroadcaster patientEventBroadcaster;
+
+  @MockBean
+  private WarmupService warmupService;
+
+  @MockBean
+  private PriorityLanes priorityLanes;
+
   @Autowired
   private ObjectMapper objectMapper;
+
+  /** Meter registry for the JWT filter's metrics, loaded into the MVC test slice. */
+  @TestConfiguration
+  static class MetricsTestConfig {
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
 }
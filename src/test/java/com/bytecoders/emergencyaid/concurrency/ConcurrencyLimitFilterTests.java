@@ -0,0 +1,73 @@
+package com.bytecoders.emergencyaid.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Tests for {@link ConcurrencyLimitFilter}. */
+public class ConcurrencyLimitFilterTests {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(true, 10, 1, 10, 1.5,
+      100, new String[]{"default=0.8", "bulk=0.2"}, new String[]{"/patients=bulk"},
+      new String[]{"/actuator/**"}, meterRegistry);
+
+  private double inflight(String partition) {
+    return meterRegistry.get("emergencyaid.concurrency.inflight").tag("partition", partition)
+        .gauge().value();
+  }
+
+  private static MockHttpServletRequest request(String uri) {
+    final MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+    request.setAsyncSupported(true);
+    return request;
+  }
+
+  @Test
+  void doFilter_Sync_ReleasesWhenChainReturns() throws Exception {
+    final MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request("/patients"), response, new MockFilterChain());
+
+    assertEquals(200, response.getStatus());
+    assertEquals(0, inflight("bulk"));
+  }
+
+  @Test
+  void doFilter_Async_HoldsSlotUntilComplete() throws Exception {
+    final MockHttpServletRequest request = request("/patients");
+    final FilterChain chain = (req, res) -> req.startAsync();
+
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+    assertEquals(1, inflight("bulk"));
+    assertEquals(0, inflight("default"));
+
+    ((MockAsyncContext) request.getAsyncContext()).complete();
+    assertEquals(0, inflight("bulk"));
+  }
+
+  @Test
+  void doFilter_AsyncTimeout_ReleasesOnce() throws Exception {
+    final MockHttpServletRequest request = request("/patients");
+    final FilterChain chain = (req, res) -> req.startAsync();
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+    filter.doFilter(request("/patients"), new MockHttpServletResponse(), chain);
+    assertEquals(2, inflight("bulk"));
+
+    final MockAsyncContext context = (MockAsyncContext) request.getAsyncContext();
+    for (AsyncListener listener : context.getListeners()) {
+      listener.onTimeout(new AsyncEvent(context));
+    }
+    context.complete();
+    assertEquals(1, inflight("bulk"));
+  }
+}
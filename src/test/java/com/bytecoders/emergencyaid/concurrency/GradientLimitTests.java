@@ -0,0 +1,83 @@
+package com.bytecoders.emergencyaid.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link GradientLimit}. */
+public class GradientLimitTests {
+
+  private static final long MILLIS = 1_000_000L;
+
+  private long now;
+
+  // one sample per window
+  private void sample(GradientLimit limit, long rttNanos, int inflight, int times) {
+    for (int i = 0; i < times; i++) {
+      limit.onSample(now += MILLIS, rttNanos, inflight);
+    }
+  }
+
+  @Test
+  void onSample_GrowsWhileLatencyIsSteady() {
+    final GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0, 1);
+
+    for (int i = 0; i < 50; i++) {
+      sample(limit, 10 * MILLIS, limit.getLimit(), 1);
+    }
+
+    assertTrue(limit.getLimit() > 40, "Limit should grow, was " + limit.getLimit());
+  }
+
+  @Test
+  void onSample_ShrinksWhenLatencyClimbs() {
+    final GradientLimit limit = new GradientLimit(100, 4, 200, 1.5, 0, 1);
+    sample(limit, 10 * MILLIS, 100, 1);
+
+    for (int i = 0; i < 20; i++) {
+      sample(limit, 50 * MILLIS, limit.getLimit(), 1);
+    }
+
+    assertTrue(limit.getLimit() < 50, "Limit should shrink, was " + limit.getLimit());
+  }
+
+  @Test
+  void onSample_StaysWithinBounds() {
+    final GradientLimit limit = new GradientLimit(10, 10, 12, 1.5, 0, 1);
+
+    sample(limit, 10 * MILLIS, 12, 100);
+    assertEquals(12, limit.getLimit());
+
+    sample(limit, 10_000 * MILLIS, 12, 20);
+    assertEquals(10, limit.getLimit());
+  }
+
+  @Test
+  void onSample_IgnoresUnderusedWindows() {
+    final GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0, 1);
+
+    sample(limit, 10 * MILLIS, 2, 100);
+
+    assertEquals(20, limit.getLimit());
+  }
+
+  @Test
+  void onSample_WaitsForFullWindow() {
+    final GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 100 * MILLIS, 10);
+
+    // 9 samples, 9ms apart: neither enough samples nor a long enough window
+    sample(limit, 10 * MILLIS, 20, 9);
+
+    assertEquals(20, limit.getLimit());
+  }
+
+  @Test
+  void constructor_RejectsInvalidBounds() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new GradientLimit(2, 4, 200, 1.5, 0, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new GradientLimit(20, 4, 200, 0.5, 0, 1));
+  }
+}
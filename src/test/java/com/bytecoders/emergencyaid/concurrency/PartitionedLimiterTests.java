@@ -0,0 +1,73 @@
+package com.bytecoders.emergencyaid.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link PartitionedLimiter}. */
+public class PartitionedLimiterTests {
+
+  private static PartitionedLimiter limiter(int limit) {
+    final Map<String, Double> shares = new LinkedHashMap<>();
+    shares.put("prescriptions", 0.5);
+    shares.put("bulk", 0.2);
+    shares.put("default", 0.3);
+    return new PartitionedLimiter(new GradientLimit(limit, 1, limit, 1.5, 0, 1), shares);
+  }
+
+  private static int acquire(PartitionedLimiter limiter, String partition, int times) {
+    int admitted = 0;
+    for (int i = 0; i < times; i++) {
+      if (limiter.tryAcquire(limiter.partition(partition)) > 0) {
+        admitted++;
+      }
+    }
+    return admitted;
+  }
+
+  @Test
+  void tryAcquire_PartitionsBorrowUnusedShares() {
+    final PartitionedLimiter limiter = limiter(10);
+
+    assertEquals(10, acquire(limiter, "bulk", 20));
+    assertEquals(10, limiter.getInflight());
+  }
+
+  @Test
+  void tryAcquire_GuaranteesShareAtTheLimit() {
+    final PartitionedLimiter limiter = limiter(10);
+    acquire(limiter, "bulk", 20);
+
+    // bulk holds the whole limit; prescriptions still get their half and default its 30%
+    assertEquals(5, acquire(limiter, "prescriptions", 20));
+    assertEquals(3, acquire(limiter, "default", 20));
+    assertEquals(0, acquire(limiter, "bulk", 1));
+  }
+
+  @Test
+  void release_FreesSlot() {
+    final PartitionedLimiter limiter = limiter(1);
+    final PartitionedLimiter.Partition bulk = limiter.partition("bulk");
+    final int inflight = limiter.tryAcquire(bulk);
+    assertEquals(0, limiter.tryAcquire(bulk));
+
+    limiter.release(bulk, System.nanoTime(), 1_000_000, inflight);
+
+    assertTrue(limiter.tryAcquire(bulk) > 0);
+  }
+
+  @Test
+  void constructor_RejectsSharesOverOne() {
+    assertThrows(IllegalArgumentException.class, () -> new PartitionedLimiter(
+        new GradientLimit(10, 1, 10, 1.5, 0, 1), Map.of("a", 0.6, "b", 0.6)));
+  }
+
+  @Test
+  void partition_RejectsUnknownName() {
+    assertThrows(IllegalArgumentException.class, () -> limiter(10).partition("export"));
+  }
+}
@@ -0,0 +1,83 @@
+package com.bytecoders.emergencyaid.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Tests for {@link ReplicaRoutingDataSource}. */
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTests {
+
+  @Mock
+  private DataSource primary;
+
+  @Mock
+  private DataSource replica;
+
+  @Mock
+  private ReplicaHealthChecker replicaHealth;
+
+  private final Connection primaryConnection = mock(Connection.class);
+
+  private final Connection replicaConnection = mock(Connection.class);
+
+  private ReplicaRoutingDataSource routingDataSource;
+
+  @BeforeEach
+  void setup() {
+    routingDataSource = new ReplicaRoutingDataSource(primary, replica, replicaHealth);
+  }
+
+  @AfterEach
+  void clearReadOnly() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  void readWriteTransaction_UsesPrimary() throws SQLException {
+    when(primary.getConnection()).thenReturn(primaryConnection);
+
+    assertSame(primaryConnection, routingDataSource.getConnection());
+  }
+
+  @Test
+  void readOnlyTransaction_ReplicaAvailable_UsesReplica() throws SQLException {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    when(replicaHealth.isAvailable()).thenReturn(true);
+    when(replica.getConnection()).thenReturn(replicaConnection);
+
+    assertSame(replicaConnection, routingDataSource.getConnection());
+  }
+
+  @Test
+  void readOnlyTransaction_ReplicaLagging_UsesPrimary() throws SQLException {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    when(replicaHealth.isAvailable()).thenReturn(false);
+    when(primary.getConnection()).thenReturn(primaryConnection);
+
+    assertSame(primaryConnection, routingDataSource.getConnection());
+  }
+
+  @Test
+  void readOnlyTransaction_ReplicaUnreachable_FallsBackToPrimary() throws SQLException {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    when(replicaHealth.isAvailable()).thenReturn(true);
+    when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+    when(primary.getConnection()).thenReturn(primaryConnection);
+
+    assertSame(primaryConnection, routingDataSource.getConnection());
+    verify(replicaHealth).markUnavailable();
+  }
+}
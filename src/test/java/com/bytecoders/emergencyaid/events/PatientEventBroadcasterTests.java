@@ -0,0 +1,108 @@
+package com.bytecoders.emergencyaid.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytecoders.emergencyaid.events.PatientEventBroadcaster.Message;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link PatientEventBroadcaster}. */
+public class PatientEventBroadcasterTests {
+
+  private PatientEventBroadcaster broadcaster;
+
+  @BeforeEach
+  void setUp() {
+    broadcaster = new PatientEventBroadcaster(new ObjectMapper(), new SimpleMeterRegistry(),
+        2, 4, 3, 60_000, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    broadcaster.shutdown();
+  }
+
+  private PatientSummary patient(String firstName) {
+    return new PatientSummary(UUID.randomUUID(), firstName, "Doe", "123-456-7890", null, 0L);
+  }
+
+  @Test
+  void eventsAfter_NoLastEventId() {
+    broadcaster.publish(patient("John"));
+    assertTrue(broadcaster.eventsAfter(null).isEmpty());
+  }
+
+  @Test
+  void eventsAfter_ReplaysMissedEvents() {
+    broadcaster.publish(patient("John"));
+    broadcaster.publish(patient("Jane"));
+    broadcaster.publish(patient("Jim"));
+    final String firstId = broadcaster.eventsAfter(epoch() + "-0").get(0).id();
+
+    List<Message> missed = broadcaster.eventsAfter(firstId);
+
+    assertEquals(2, missed.size());
+    assertEquals(PatientEventBroadcaster.REGISTERED_EVENT, missed.get(0).name());
+    assertTrue(missed.get(0).data().contains("\"firstName\":\"Jane\""));
+    assertTrue(missed.get(1).data().contains("\"firstName\":\"Jim\""));
+    assertTrue(missed.get(1).id().endsWith("-3"));
+  }
+
+  @Test
+  void eventsAfter_UpToDate() {
+    broadcaster.publish(patient("John"));
+    assertTrue(broadcaster.eventsAfter(epoch() + "-1").isEmpty());
+  }
+
+  @Test
+  void eventsAfter_UnknownEpochResets() {
+    broadcaster.publish(patient("John"));
+
+    List<Message> missed = broadcaster.eventsAfter("otherinstance-1");
+
+    assertEquals(1, missed.size());
+    assertEquals(PatientEventBroadcaster.RESET_EVENT, missed.get(0).name());
+    assertEquals(epoch() + "-1", missed.get(0).id());
+  }
+
+  @Test
+  void eventsAfter_EvictedHistoryResets() {
+    for (int i = 0; i < 5; i++) {
+      broadcaster.publish(patient("John" + i));
+    }
+
+    // history size is 3, so events 2 to 5 are no longer all available
+    List<Message> missed = broadcaster.eventsAfter(epoch() + "-1");
+
+    assertEquals(1, missed.size());
+    assertEquals(PatientEventBroadcaster.RESET_EVENT, missed.get(0).name());
+    assertEquals(3, broadcaster.eventsAfter(epoch() + "-2").size());
+  }
+
+  @Test
+  void eventsAfter_MalformedIdResets() {
+    assertEquals(PatientEventBroadcaster.RESET_EVENT,
+        broadcaster.eventsAfter("not-an-id").get(0).name());
+  }
+
+  @Test
+  void subscribe_RejectedAboveLimit() {
+    assertTrue(broadcaster.subscribe(null).isPresent());
+    assertTrue(broadcaster.subscribe(null).isPresent());
+    assertTrue(broadcaster.subscribe(null).isEmpty());
+    assertEquals(2, broadcaster.subscriberCount());
+  }
+
+  private String epoch() {
+    // a reset carries the current event ID, whose prefix is the epoch
+    final String id = broadcaster.eventsAfter("-").get(0).id();
+    return id.substring(0, id.lastIndexOf('-'));
+  }
+}
@@ -0,0 +1,110 @@
+package com.bytecoders.emergencyaid.priority;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link ConnectionLanes}. */
+public class ConnectionLanesTests {
+
+  private static final long NO_WAIT = 0;
+
+  // pool of 5: 2 reserved for critical, bulk at most 1
+  private final ConnectionLanes lanes = new ConnectionLanes(2, 1, 1);
+
+  @BeforeEach
+  void setup() {
+    lanes.sizeTo(5);
+  }
+
+  @Test
+  void acquire_NormalLeavesReservedConnections() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      lanes.acquire(Priority.NORMAL, NO_WAIT);
+    }
+
+    assertThrows(SQLTransientConnectionException.class,
+        () -> lanes.acquire(Priority.NORMAL, NO_WAIT));
+    assertDoesNotThrow(() -> lanes.acquire(Priority.CRITICAL, NO_WAIT));
+    assertEquals(3, lanes.inUse(Priority.NORMAL));
+    assertEquals(1, lanes.inUse(Priority.CRITICAL));
+  }
+
+  @Test
+  void acquire_BulkLimitedToItsShare() throws Exception {
+    lanes.acquire(Priority.BULK, NO_WAIT);
+
+    assertThrows(SQLTransientConnectionException.class,
+        () -> lanes.acquire(Priority.BULK, NO_WAIT));
+    assertDoesNotThrow(() -> lanes.acquire(Priority.NORMAL, NO_WAIT));
+    assertEquals(1, lanes.inUse(Priority.BULK));
+    assertEquals(2, lanes.inUse(Priority.NORMAL));
+  }
+
+  @Test
+  void acquire_CriticalWaitsOnlyForFullPool() throws Exception {
+    lanes.acquire(Priority.NORMAL, NO_WAIT);
+    lanes.acquire(Priority.NORMAL, NO_WAIT);
+    assertFalse(lanes.acquire(Priority.CRITICAL, NO_WAIT));
+    assertFalse(lanes.acquire(Priority.CRITICAL, NO_WAIT));
+    assertFalse(lanes.acquire(Priority.CRITICAL, NO_WAIT));
+    assertEquals(0, lanes.criticalWaiting());
+
+    assertTrue(lanes.acquire(Priority.CRITICAL, NO_WAIT));
+    assertEquals(1, lanes.criticalWaiting());
+    lanes.criticalWaitEnded();
+    assertEquals(0, lanes.criticalWaiting());
+  }
+
+  @Test
+  void acquire_BulkPausesWhileCriticalWaits() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      lanes.acquire(Priority.CRITICAL, NO_WAIT);
+    }
+    assertTrue(lanes.acquire(Priority.CRITICAL, NO_WAIT));
+
+    assertThrows(SQLTransientConnectionException.class,
+        () -> lanes.acquire(Priority.BULK, NO_WAIT));
+    assertDoesNotThrow(() -> lanes.acquire(Priority.NORMAL, NO_WAIT));
+
+    lanes.criticalWaitEnded();
+    assertDoesNotThrow(() -> lanes.acquire(Priority.BULK, NO_WAIT));
+  }
+
+  @Test
+  void release_WakesWaitingRequest() throws Exception {
+    lanes.acquire(Priority.BULK, NO_WAIT);
+    final CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+      try {
+        lanes.acquire(Priority.BULK, TimeUnit.SECONDS.toNanos(5));
+      } catch (SQLTransientConnectionException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    lanes.release(Priority.BULK);
+
+    waiting.get(5, TimeUnit.SECONDS);
+    assertTrue(waiting.isDone());
+    assertEquals(1, lanes.inUse(Priority.BULK));
+  }
+
+  @Test
+  void sizeTo_RejectsReservingWholePool() {
+    assertThrows(IllegalArgumentException.class, () -> new ConnectionLanes(5, 1, 1).sizeTo(5));
+  }
+
+  @Test
+  void acquire_UnsizedThrows() {
+    assertThrows(IllegalStateException.class,
+        () -> new ConnectionLanes(2, 1, 1).acquire(Priority.NORMAL, NO_WAIT));
+  }
+}
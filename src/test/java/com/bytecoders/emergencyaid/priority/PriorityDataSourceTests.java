@@ -0,0 +1,129 @@
+package com.bytecoders.emergencyaid.priority;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Tests for {@link PriorityDataSource}. */
+@ExtendWith(MockitoExtension.class)
+public class PriorityDataSourceTests {
+
+  @Mock
+  private DataSource pool;
+
+  @Mock
+  private Connection connection;
+
+  private ConnectionLanes lanes;
+
+  private PriorityDataSource dataSource;
+
+  @BeforeEach
+  void setup() {
+    lanes = new ConnectionLanes(1, 1, 1);
+    lanes.sizeTo(3);
+    dataSource = new PriorityDataSource(pool, lanes, 0);
+  }
+
+  @Test
+  void getConnection_ReturnsToLaneOnClose() throws Exception {
+    when(pool.getConnection()).thenReturn(connection);
+
+    final Connection held;
+    try (Priority.Scope scope = Priority.BULK.enter()) {
+      held = dataSource.getConnection();
+      assertEquals(1, lanes.inUse(Priority.BULK));
+      assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    held.close();
+    held.close();
+    verify(connection, times(2)).close();
+    assertEquals(0, lanes.inUse(Priority.BULK));
+    assertEquals(0, lanes.inUse(Priority.NORMAL));
+  }
+
+  @Test
+  void getConnection_CriticalWaitsOnlyForFullPool() throws Exception {
+    final List<Integer> waiting = new ArrayList<>();
+    when(pool.getConnection()).thenAnswer(invocation -> {
+      waiting.add(lanes.criticalWaiting());
+      return connection;
+    });
+
+    final Connection normal = dataSource.getConnection();
+    final Connection critical;
+    try (Priority.Scope scope = Priority.CRITICAL.enter()) {
+      critical = dataSource.getConnection();
+      dataSource.getConnection();
+      assertEquals(3, lanes.inUse(Priority.NORMAL) + lanes.inUse(Priority.CRITICAL));
+      dataSource.getConnection();
+    }
+    normal.close();
+    critical.close();
+
+    // only the critical request that found all 3 connections held waited
+    assertEquals(List.of(0, 0, 0, 1), waiting);
+    assertEquals(0, lanes.criticalWaiting());
+    assertEquals(2, lanes.inUse(Priority.CRITICAL));
+    assertEquals(0, lanes.inUse(Priority.NORMAL));
+  }
+
+  @Test
+  void getConnection_PoolFailureFreesLane() throws Exception {
+    when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+    assertThrows(SQLException.class, dataSource::getConnection);
+    assertEquals(0, lanes.inUse(Priority.NORMAL));
+  }
+
+  @Test
+  void postProcess_SizesLanesToWritablePool() throws Exception {
+    final ConnectionLanes poolLanes = new ConnectionLanes(1, 2, 1);
+    final PriorityDataSourcePostProcessor postProcessor =
+        new PriorityDataSourcePostProcessor(poolLanes);
+    try (HikariDataSource primary = new HikariDataSource();
+        HikariDataSource replica = new HikariDataSource()) {
+      primary.setMaximumPoolSize(3);
+      replica.setReadOnly(true);
+
+      assertInstanceOf(PriorityDataSource.class,
+          postProcessor.postProcessAfterInitialization(primary, "dataSource"));
+      assertSame(replica, postProcessor.postProcessAfterInitialization(replica, "replica"));
+    }
+
+    // 3 connections, 1 reserved for critical
+    poolLanes.acquire(Priority.NORMAL, 0);
+    poolLanes.acquire(Priority.NORMAL, 0);
+    assertThrows(SQLTransientConnectionException.class,
+        () -> poolLanes.acquire(Priority.NORMAL, 0));
+  }
+
+  @Test
+  void enter_RestoresPreviousPriority() {
+    try (Priority.Scope outer = Priority.CRITICAL.enter()) {
+      try (Priority.Scope inner = Priority.BULK.enter()) {
+        assertEquals(Priority.BULK, Priority.current());
+      }
+      assertEquals(Priority.CRITICAL, Priority.current());
+    }
+    assertEquals(Priority.NORMAL, Priority.current());
+  }
+}
@@ -0,0 +1,30 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.EnumSet;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link PatientField}. */
+public class PatientFieldTests {
+
+  @Test
+  void parse_NotGiven_AllFields() {
+    assertEquals(PatientField.ALL, PatientField.parse(null));
+    assertEquals(PatientField.ALL, PatientField.parse(" "));
+  }
+
+  @Test
+  void parse_SelectedFields() {
+    assertEquals(EnumSet.of(PatientField.ID, PatientField.FIRST_NAME, PatientField.LAST_NAME),
+        PatientField.parse("lastName, id,firstName"));
+  }
+
+  @Test
+  void parse_UnknownField_Throws() {
+    final IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> PatientField.parse("id,version"));
+    assertEquals("Unknown patient field: version", e.getMessage());
+  }
+}
@@ -0,0 +1,37 @@
+package com.bytecoders.emergencyaid.repository.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link SparsePatientSummaries}. */
+public class SparsePatientSummariesTests {
+
+  private static final UUID MOCK_UUID = UUID.fromString("9101d183-26e6-45b7-a8c4-25f24fdb36fa");
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void serialize_WritesOnlySelectedFields() throws Exception {
+    final PatientSummary patient = new PatientSummary(MOCK_UUID, "Bob", "Smith", null, null, 3L);
+
+    final String json = objectMapper.writeValueAsString(new SparsePatientSummaries(
+        List.of(patient), EnumSet.of(PatientField.ID, PatientField.FIRST_NAME)));
+
+    assertEquals("[{\"id\":\"" + MOCK_UUID + "\",\"firstName\":\"Bob\"}]", json);
+  }
+
+  @Test
+  void serialize_SelectedNullFieldIsWritten() throws Exception {
+    final PatientSummary patient = new PatientSummary(MOCK_UUID, null, "Smith", null, null, 3L);
+
+    final String json = objectMapper.writeValueAsString(new SparsePatientSummaries(
+        List.of(patient), EnumSet.of(PatientField.PHARMA_ID)));
+
+    assertEquals("[{\"pharmaId\":null}]", json);
+  }
+}
@@ -0,0 +1,76 @@
+package com.bytecoders.emergencyaid.secrets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link EncryptedSecretCache}. */
+public class EncryptedSecretCacheTests {
+
+  private static final byte[] KEY = new byte[32];
+
+  private static final Map<String, String> SECRETS =
+      Map.of("DB_PASS", "p@ss=word", "JWT_SECRET", "c2VjcmV0");
+
+  private static final Instant NOW = Instant.parse("2024-11-01T10:00:00Z");
+
+  @TempDir
+  Path tempDir;
+
+  private EncryptedSecretCache cache(byte[] key, Instant now) {
+    return new EncryptedSecretCache(tempDir.resolve("secrets.bin"), key, Duration.ofHours(1),
+        Clock.fixed(now, ZoneOffset.UTC));
+  }
+
+  @Test
+  void writeThenRead() throws Exception {
+    cache(KEY, NOW).write(SECRETS);
+
+    assertEquals(SECRETS, cache(KEY, NOW.plusSeconds(60)).read(SECRETS.keySet(), false).get());
+    final String content =
+        new String(Files.readAllBytes(tempDir.resolve("secrets.bin")), StandardCharsets.ISO_8859_1);
+    assertFalse(content.contains("p@ss=word"), "secrets must not be stored in plain text");
+  }
+
+  @Test
+  void read_Expired() throws Exception {
+    cache(KEY, NOW).write(SECRETS);
+    final EncryptedSecretCache later = cache(KEY, NOW.plus(Duration.ofHours(2)));
+
+    assertTrue(later.read(SECRETS.keySet(), false).isEmpty());
+    assertEquals(SECRETS, later.read(SECRETS.keySet(), true).get());
+  }
+
+  @Test
+  void read_WrongKey() throws Exception {
+    cache(KEY, NOW).write(SECRETS);
+    final byte[] otherKey = Arrays.copyOf(KEY, KEY.length);
+    otherKey[0] = 1;
+
+    assertTrue(cache(otherKey, NOW).read(SECRETS.keySet(), false).isEmpty());
+  }
+
+  @Test
+  void read_DifferentNames() throws Exception {
+    cache(KEY, NOW).write(SECRETS);
+    assertTrue(cache(KEY, NOW).read(Set.of("DB_PASS"), false).isEmpty());
+  }
+
+  @Test
+  void read_NoFile() {
+    assertTrue(cache(KEY, NOW).read(SECRETS.keySet(), false).isEmpty());
+  }
+}
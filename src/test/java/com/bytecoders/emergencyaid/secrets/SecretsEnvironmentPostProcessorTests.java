@@ -0,0 +1,82 @@
+package com.bytecoders.emergencyaid.secrets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+/** Tests for {@link SecretsEnvironmentPostProcessor} with the file provider. */
+public class SecretsEnvironmentPostProcessorTests {
+
+  @TempDir
+  Path tempDir;
+
+  private final SecretsEnvironmentPostProcessor postProcessor =
+      new SecretsEnvironmentPostProcessor(Supplier::get);
+
+  private StandardEnvironment environment;
+
+  private Map<String, Object> properties;
+
+  @BeforeEach
+  void setup() throws IOException {
+    final Path secretsFile = tempDir.resolve("secrets.properties");
+    Files.writeString(secretsFile, "DB_USER=emergency\nJWT_SECRET=c2VjcmV0\n");
+
+    properties = new HashMap<>();
+    properties.put("emergencyaid.secrets.provider", "file");
+    properties.put("emergencyaid.secrets.file", secretsFile.toString());
+    properties.put("spring.datasource.username", "${sm://DB_USER}");
+    properties.put("security.jwt.secret-key", "${sm://JWT_SECRET}");
+    environment = new StandardEnvironment();
+    // first, so surefire's emergencyaid.secrets.* system properties do not take precedence
+    environment.getPropertySources().addFirst(new MapPropertySource("application", properties));
+  }
+
+  @Test
+  void findReferences() {
+    properties.put("spring.datasource.url",
+        "jdbc:postgresql:///${sm://DB_NAME}?user=${sm://DB_USER}");
+    assertEquals(Set.of("DB_NAME", "DB_USER", "JWT_SECRET"),
+        SecretsEnvironmentPostProcessor.findReferences(environment));
+  }
+
+  @Test
+  void postProcessEnvironment_ResolvesReferencesFromFile() {
+    postProcessor.postProcessEnvironment(environment, null);
+
+    assertEquals("emergency", environment.getProperty("spring.datasource.username"));
+    assertEquals("c2VjcmV0", environment.getProperty("security.jwt.secret-key"));
+    assertEquals("false", environment.getProperty("spring.cloud.gcp.secretmanager.enabled"));
+  }
+
+  @Test
+  void postProcessEnvironment_MissingSecretFails() {
+    properties.put("pharmaid.api.password", "${sm://PHARMAID_PASS}");
+    assertThrows(IllegalStateException.class,
+        () -> postProcessor.postProcessEnvironment(environment, null));
+  }
+
+  @Test
+  void postProcessEnvironment_NoReferences() {
+    properties.remove("spring.datasource.username");
+    properties.remove("security.jwt.secret-key");
+
+    postProcessor.postProcessEnvironment(environment, null);
+
+    assertNull(environment.getPropertySources()
+        .get(SecretsEnvironmentPostProcessor.PROPERTY_SOURCE_NAME));
+  }
+}
@@ -0,0 +1,79 @@
+package com.bytecoders.emergencyaid.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.util.ArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/** Tests for {@link RateLimitFilter}. */
+public class RateLimitFilterTests {
+
+  private final RateLimitFilter filter = new RateLimitFilter(true,
+      new String[]{"/login=2/1m", "/patients/{patientId}/pharmaid/view=1/1m"}, "3/1m",
+      new String[]{"/actuator/**"}, 100, new SimpleMeterRegistry());
+
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private MockHttpServletResponse send(String uri, String remoteAddr) throws Exception {
+    final MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+    request.setRemoteAddr(remoteAddr);
+    final MockHttpServletResponse response = new MockHttpServletResponse();
+    final FilterChain chain = new MockFilterChain();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+
+  @Test
+  void rejectsOverRouteLimitWithRetryAfter() throws Exception {
+    assertEquals(200, send("/login", "10.0.0.1").getStatus());
+    assertEquals(200, send("/login", "10.0.0.1").getStatus());
+
+    final MockHttpServletResponse rejected = send("/login", "10.0.0.1");
+    assertEquals(429, rejected.getStatus());
+    assertEquals("30", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+    // other clients and routes have their own buckets
+    assertEquals(200, send("/login", "10.0.0.2").getStatus());
+    assertEquals(200, send("/patients", "10.0.0.1").getStatus());
+  }
+
+  @Test
+  void matchesRoutePatterns() throws Exception {
+    assertEquals(200, send("/patients/1/pharmaid/view", "10.0.0.1").getStatus());
+    assertEquals(429, send("/patients/2/pharmaid/view", "10.0.0.1").getStatus());
+  }
+
+  @Test
+  void keysAuthenticatedRequestsByUser() throws Exception {
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken("user-1", null, new ArrayList<>()));
+
+    assertEquals(200, send("/login", "10.0.0.1").getStatus());
+    assertEquals(200, send("/login", "10.0.0.2").getStatus());
+    final MockHttpServletResponse rejected = send("/login", "10.0.0.3");
+    assertEquals(429, rejected.getStatus());
+    assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+  }
+
+  @Test
+  void exemptRoutesAreNotLimited() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      final MockHttpServletResponse response = send("/actuator/health", "10.0.0.1");
+      assertEquals(200, response.getStatus());
+      assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+  }
+}
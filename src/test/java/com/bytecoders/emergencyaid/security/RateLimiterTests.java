@@ -0,0 +1,79 @@
+package com.bytecoders.emergencyaid.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link RateLimiter}. */
+public class RateLimiterTests {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  @Test
+  void tryAcquire_AllowsBurstOfCapacity() {
+    final RateLimiter limiter = new RateLimiter(10, Duration.ofMinutes(1), 100);
+    final long now = System.nanoTime();
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(0, limiter.tryAcquire("client", now));
+    }
+    // one token is refilled every 6 seconds
+    assertEquals(6 * SECOND, limiter.tryAcquire("client", now));
+  }
+
+  @Test
+  void tryAcquire_RefillsOverTime() {
+    final RateLimiter limiter = new RateLimiter(10, Duration.ofMinutes(1), 100);
+    final long now = System.nanoTime();
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire("client", now);
+    }
+
+    assertEquals(0, limiter.tryAcquire("client", now + 6 * SECOND));
+    assertTrue(limiter.tryAcquire("client", now + 6 * SECOND) > 0);
+  }
+
+  @Test
+  void tryAcquire_KeysAreIndependent() {
+    final RateLimiter limiter = new RateLimiter(1, Duration.ofMinutes(1), 100);
+    final long now = System.nanoTime();
+
+    assertEquals(0, limiter.tryAcquire("first", now));
+    assertTrue(limiter.tryAcquire("first", now) > 0);
+    assertEquals(0, limiter.tryAcquire("second", now));
+  }
+
+  @Test
+  void tryAcquire_NewKeysShareOverflowBucketWhenFull() {
+    final RateLimiter limiter = new RateLimiter(1, Duration.ofMinutes(1), 1);
+    final long now = System.nanoTime();
+    limiter.tryAcquire("first", now);
+
+    assertEquals(0, limiter.tryAcquire("second", now));
+    assertTrue(limiter.tryAcquire("third", now) > 0);
+    assertEquals(1, limiter.size());
+  }
+
+  @Test
+  void evictIdle_RemovesOnlyFullBuckets() {
+    final RateLimiter limiter = new RateLimiter(10, Duration.ofMinutes(1), 100);
+    final long now = System.nanoTime();
+    limiter.tryAcquire("idle", now);
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire("busy", now + 30 * SECOND);
+    }
+
+    limiter.evictIdle(now + 30 * SECOND);
+
+    assertEquals(1, limiter.size());
+  }
+
+  @Test
+  void constructor_RejectsZeroCapacity() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new RateLimiter(0, Duration.ofMinutes(1), 100));
+  }
+}
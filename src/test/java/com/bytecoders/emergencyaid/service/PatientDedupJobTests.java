@@ -0,0 +1,141 @@
+package com.bytecoders.emergencyaid.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bytecoders.emergencyaid.repository.DedupCheckpointRepository;
+import com.bytecoders.emergencyaid.repository.MergeSuggestionRepository;
+import com.bytecoders.emergencyaid.repository.PatientBlockingKeyRepository;
+import com.bytecoders.emergencyaid.repository.PatientRepository;
+import com.bytecoders.emergencyaid.repository.model.DedupCheckpoint;
+import com.bytecoders.emergencyaid.repository.model.MergeSuggestion;
+import com.bytecoders.emergencyaid.repository.model.PatientBlockingKey;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import com.bytecoders.emergencyaid.util.PatientMatcher;
+import com.bytecoders.emergencyaid.util.UuidV7;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Tests for {@link PatientDedupJob}. */
+@ExtendWith(MockitoExtension.class)
+public class PatientDedupJobTests {
+
+  @Mock
+  private PatientRepository patientRepository;
+
+  @Mock
+  private PatientBlockingKeyRepository blockingKeyRepository;
+
+  @Mock
+  private MergeSuggestionRepository mergeSuggestionRepository;
+
+  @Mock
+  private DedupCheckpointRepository checkpointRepository;
+
+  @Spy
+  private PatientMatcher patientMatcher = new PatientMatcher();
+
+  @InjectMocks
+  private PatientDedupJob patientDedupJob;
+
+  @Captor
+  private ArgumentCaptor<List<MergeSuggestion>> suggestionsCaptor;
+
+  @Captor
+  private ArgumentCaptor<List<PatientBlockingKey>> keysCaptor;
+
+  private DedupCheckpoint checkpoint;
+
+  @BeforeEach
+  void setup() {
+    ReflectionTestUtils.setField(patientDedupJob, "chunkSize", 500);
+    ReflectionTestUtils.setField(patientDedupJob, "maxBlockSize", 200);
+    ReflectionTestUtils.setField(patientDedupJob, "scoreThreshold", 0.85);
+
+    checkpoint = new DedupCheckpoint();
+    checkpoint.setJobName(PatientDedupJob.JOB_NAME);
+    when(checkpointRepository.findForUpdateByJobName(PatientDedupJob.JOB_NAME))
+        .thenReturn(Optional.of(checkpoint));
+  }
+
+  @Test
+  void processNextChunk_DuplicatesWithinChunk_SuggestsMergeAndAdvancesCheckpoint() {
+    final PatientSummary john = patient("John", "Smith", "800-100-1000");
+    final PatientSummary jon = patient("Jon", "Smith", "800-100-2000");
+    final PatientSummary jane = patient("Jane", "Doe", "212-555-0199");
+    when(patientRepository.findUnprocessedSummaries(any(Pageable.class)))
+        .thenReturn(List.of(john, jon, jane));
+
+    final PatientDedupJob.ChunkResult result = patientDedupJob.processNextChunk();
+
+    assertEquals(3, result.patients());
+    assertEquals(1, result.suggestions());
+    verify(mergeSuggestionRepository).saveAll(suggestionsCaptor.capture());
+    final MergeSuggestion suggestion = suggestionsCaptor.getValue().get(0);
+    assertEquals(john.id(), suggestion.getPatientId());
+    assertEquals(jon.id(), suggestion.getDuplicatePatientId());
+    assertEquals(jane.id(), checkpoint.getLastPatientId());
+    verify(checkpointRepository).save(checkpoint);
+  }
+
+  @Test
+  void processNextChunk_DuplicateOfProcessedPatient_ScoresAgainstEarlierChunk() {
+    final PatientSummary john = patient("John", "Smith", "800-100-1000");
+    final PatientSummary smyth = patient("Jon", "Smyth", "800-100-2000");
+    when(patientRepository.findUnprocessedSummaries(any(Pageable.class)))
+        .thenReturn(List.of(smyth));
+    when(blockingKeyRepository.findByBlockKeyIn(anyCollection()))
+        .thenReturn(List.of(new PatientBlockingKey("name:s530:j", john.id())));
+    when(patientRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(john));
+
+    final PatientDedupJob.ChunkResult result = patientDedupJob.processNextChunk();
+
+    assertEquals(1, result.suggestions());
+    verify(mergeSuggestionRepository).saveAll(suggestionsCaptor.capture());
+    assertEquals(john.id(), suggestionsCaptor.getValue().get(0).getPatientId());
+    assertEquals(smyth.id(), checkpoint.getLastPatientId());
+  }
+
+  @Test
+  void processNextChunk_NoUnprocessedPatients_DoesNothing() {
+    when(patientRepository.findUnprocessedSummaries(any(Pageable.class))).thenReturn(List.of());
+
+    final PatientDedupJob.ChunkResult result = patientDedupJob.processNextChunk();
+
+    assertEquals(0, result.patients());
+    verify(mergeSuggestionRepository, never()).saveAll(any());
+    verify(checkpointRepository, never()).save(any());
+  }
+
+  @Test
+  void processNextChunk_PatientWithoutBlockingKeys_RecordsProcessedMarker() {
+    final PatientSummary unnamed = patient("", "", "");
+    when(patientRepository.findUnprocessedSummaries(any(Pageable.class)))
+        .thenReturn(List.of(unnamed));
+
+    patientDedupJob.processNextChunk();
+
+    verify(blockingKeyRepository).saveAll(keysCaptor.capture());
+    assertEquals(List.of(new PatientBlockingKey(PatientDedupJob.PROCESSED_MARKER, unnamed.id())),
+        keysCaptor.getValue());
+  }
+
+  private static PatientSummary patient(String firstName, String lastName, String phoneNumber) {
+    return new PatientSummary(UuidV7.generate(), firstName, lastName, phoneNumber, null, 0L);
+  }
+}
@@ -7,32 +7,52 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.bytecoders.emergencyaid.events.PatientRegisteredEvent;
+import com.bytecoders.emergencyaid.openapi.model.Medication;
+import com.bytecoders.emergencyaid.openapi.model.Prescription;
 import com.bytecoders.emergencyaid.openapi.model.RegisterPatientRequest;
 import com.bytecoders.emergencyaid.repository.PatientRepository;
 import com.bytecoders.emergencyaid.repository.model.Patient;
+import com.bytecoders.emergencyaid.repository.model.PatientField;
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
 import com.bytecoders.emergencyaid.util.QueryValidator;
 import com.bytecoders.emergencyaid.util.ServiceUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -61,13 +81,25 @@ public class PatientServiceTests {
   @Mock
   private RestTemplate restTemplate;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private PrescriptionJson prescriptionJson = new PrescriptionJson(new ObjectMapper());
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Spy
+  private PrescriptionCache prescriptionCache = new PrescriptionCache(30_000, 100);
+
   @InjectMocks
   private PatientService patientService;
 
   private static final UUID MOCK_UUID = UUID.randomUUID();
   private static final String MOCK_PHARMAID = UUID.randomUUID().toString();
   private Patient patient;
-  private List<Map<String, Object>> prescriptions;
+  private List<Prescription> prescriptions;
   HttpHeaders headers;
 
   @BeforeEach
@@ -78,13 +110,11 @@ public class PatientServiceTests {
     patient.setFirstName("Doe");
     patient.setPhoneNumber("800-100-9999");
 
-    prescriptions = List.of(Map.of("id", "8e5d0073-bee1-48d9-a85d-a39ce230caa2", "medication",
-        Map.of("id", "7f72c869-7f99-4a77-8242-598a6b933ded", "medicationName", "Ibuprofen"),
-        "dosage", 205, "numOfDoses", 32, "startDate", "2024-10-28", "endDate", "2024-11-28",
-        "isActive", true), Map.of("id", "9f1c0074-cdd1-49c9-b75c-b49ce120caa3", "medication",
-        Map.of("id", "6e82b869-8f99-4b88-9242-498a5b933def", "medicationName", "Paracetamol"),
-        "dosage", 500, "numOfDoses", 60, "startDate", "2024-10-01", "endDate", "2024-11-01",
-        "isActive", false));
+    prescriptions = List.of(
+        prescription("8e5d0073-bee1-48d9-a85d-a39ce230caa2", "7f72c869-7f99-4a77-8242-598a6b933ded",
+            "Ibuprofen", 205, 32, "2024-10-28", "2024-11-28", true),
+        prescription("9f1c0074-cdd1-49c9-b75c-b49ce120caa3", "6e82b869-8f99-4b88-9242-498a5b933def",
+            "Paracetamol", 500, 60, "2024-10-01", "2024-11-01", false));
 
     // http headers
     headers = new HttpHeaders();
@@ -171,6 +201,8 @@ public class PatientServiceTests {
     assertEquals(patient.getLastName(), savedPatient.getLastName());
     assertEquals(patient.getPhoneNumber(), savedPatient.getPhoneNumber());
     assertEquals(MOCK_PHARMAID, savedPatient.getPharmaId());
+    verify(eventPublisher)
+        .publishEvent(new PatientRegisteredEvent(PatientSummary.of(mockSavedPatient)));
   }
 
   @Test
@@ -308,19 +340,93 @@ public class PatientServiceTests {
         eq(Object.class))).thenReturn(new ResponseEntity<>(HttpStatus.CREATED));
 
     // mock getPrescriptions
-    HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-    when(restTemplate.exchange(eq(getPrescriptionsEndpoint), eq(HttpMethod.GET), eq(entity),
-        any(ParameterizedTypeReference.class))).thenReturn(
-        new ResponseEntity<>(prescriptions, HttpStatus.OK));
+    when(restTemplate.execute(eq(getPrescriptionsEndpoint), eq(HttpMethod.GET),
+        any(RequestCallback.class), ArgumentMatchers.<ResponseExtractor<List<Prescription>>>any()))
+        .thenReturn(prescriptions);
 
     // getPatientPrescriptions
-    List<Map<String, Object>> mockPrescriptions =
+    List<Prescription> mockPrescriptions =
         patientService.getPatientPrescriptions(patient.getId());
 
     assertEquals(2, prescriptions.size(), "Prescriptions should contain two items");
-    assertEquals(prescriptions.get(0).get("id"), mockPrescriptions.get(0).get("id"));
-    assertEquals(prescriptions.get(1).get("id"), mockPrescriptions.get(1).get("id"));
+    assertEquals(prescriptions.get(0).getId(), mockPrescriptions.get(0).getId());
+    assertEquals(prescriptions.get(1).getId(), mockPrescriptions.get(1).getId());
+  }
+
+  @Test
+  void getVersionedPatientPrescriptions_SecondCallServedFromCache() {
+    when(pharmaidAuthService.getHeaders()).thenReturn(headers);
+
+    final String getPrescriptionsEndpoint =
+        String.format("%s/users/%s/prescriptions", pharmaidBaseUrl, MOCK_PHARMAID);
+    final String shareRequestEndpoint =
+        String.format("%s/users/%s/requests", pharmaidBaseUrl, MOCK_PHARMAID);
+
+    patient.setPharmaId(MOCK_PHARMAID);
+    when(serviceUtils.findEntityById(patient.getId(), "patient", patientRepository)).thenReturn(
+        patient);
+    when(restTemplate.postForEntity(eq(shareRequestEndpoint), any(HttpEntity.class),
+        eq(Object.class))).thenReturn(new ResponseEntity<>(HttpStatus.CREATED));
+    when(restTemplate.execute(eq(getPrescriptionsEndpoint), eq(HttpMethod.GET),
+        any(RequestCallback.class), ArgumentMatchers.<ResponseExtractor<List<Prescription>>>any()))
+        .thenReturn(prescriptions);
+
+    PrescriptionCache.Entry first = patientService.getVersionedPatientPrescriptions(MOCK_UUID);
+    PrescriptionCache.Entry second = patientService.getVersionedPatientPrescriptions(MOCK_UUID);
+
+    assertEquals(prescriptions, second.prescriptions());
+    assertEquals(first.etag(), second.etag(), "Unchanged prescriptions should keep their ETag");
+    // VIEW access is requested for every view, the prescriptions are fetched once
+    verify(restTemplate, times(2)).postForEntity(eq(shareRequestEndpoint), any(HttpEntity.class),
+        eq(Object.class));
+    verify(restTemplate, times(1)).execute(eq(getPrescriptionsEndpoint), eq(HttpMethod.GET),
+        any(RequestCallback.class), ArgumentMatchers.<ResponseExtractor<List<Prescription>>>any());
+  }
+
+  @Test
+  void readPrescriptions_StreamsTypedPrescriptions() throws Exception {
+    final String body = """
+        [{"id": "8e5d0073-bee1-48d9-a85d-a39ce230caa2",
+          "medication": {"id": "7f72c869-7f99-4a77-8242-598a6b933ded",
+                         "medicationName": "Ibuprofen"},
+          "dosage": 205, "numOfDoses": 32, "startDate": "2024-10-28", "endDate": "2024-11-28",
+          "isActive": true, "unknownField": "ignored"},
+         {"id": "9f1c0074-cdd1-49c9-b75c-b49ce120caa3",
+          "medication": {"id": "6e82b869-8f99-4b88-9242-498a5b933def",
+                         "medicationName": "Paracetamol"},
+          "dosage": 500, "numOfDoses": 60, "startDate": "2024-10-01", "endDate": "2024-11-01",
+          "isActive": false}]
+        """;
+
+    List<Prescription> result = patientService.readPrescriptions(
+        new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+
+    assertEquals(prescriptions, result, "Prescriptions should be deserialized into typed DTOs");
+  }
+
+  @Test
+  void readPrescriptions_NotAnArray_Throws() {
+    MockClientHttpResponse response = new MockClientHttpResponse(
+        "{\"error\": \"not found\"}".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+
+    assertThrows(IOException.class, () -> patientService.readPrescriptions(response));
+  }
+
+  @Test
+  void readPrescriptions_NonObjectElement_Throws() {
+    MockClientHttpResponse response = new MockClientHttpResponse(
+        "[{\"dosage\": 1}, 42, {\"dosage\": 2}]".getBytes(StandardCharsets.UTF_8),
+        HttpStatus.OK);
+
+    assertThrows(IOException.class, () -> patientService.readPrescriptions(response));
+  }
+
+  @Test
+  void readPrescriptions_TruncatedArray_Throws() {
+    MockClientHttpResponse response = new MockClientHttpResponse(
+        "[{\"dosage\": 1},".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+
+    assertThrows(IOException.class, () -> patientService.readPrescriptions(response));
   }
 
   @Test
@@ -330,8 +436,7 @@ public class PatientServiceTests {
         patient);
 
     // act
-    List<Map<String, Object>> prescriptions =
-        patientService.getPatientPrescriptions(patient.getId());
+    List<Prescription> prescriptions = patientService.getPatientPrescriptions(patient.getId());
 
     // assert
     assertTrue(prescriptions.isEmpty(), "Prescriptions should be empty when no PharmaId exists");
@@ -339,38 +444,41 @@ public class PatientServiceTests {
 
   @Test
   void searchPatients_Blank_ReturnEmptyList() {
-    List<Patient> result = patientService.searchPatients("   ");
+    List<PatientSummary> result = patientService.searchPatients("   ");
     assertTrue(result.isEmpty(), "Result should be empty for a blank query");
   }
 
   @Test
   void searchPatients_ValidUuid_ReturnsPatient() {
     String query = MOCK_UUID.toString();
+    PatientSummary summary = summary(patient);
 
-    // mock isUuid() and findById()
+    // mock isUuid() and findSummaryById()
     when(queryValidator.isUuid(query)).thenReturn(true);
-    when(patientRepository.findById(MOCK_UUID)).thenReturn(Optional.of(patient));
+    when(patientRepository.findSummaryById(MOCK_UUID)).thenReturn(Optional.of(summary));
 
-    List<Patient> result = patientService.searchPatients(query);
+    List<PatientSummary> result = patientService.searchPatients(query);
 
     // assertions
     assertEquals(1, result.size(), "Result should contain one patient for a valid UUID");
-    assertEquals(patient, result.get(0), "The returned patient should match the mock patient");
+    assertEquals(summary, result.get(0), "The returned patient should match the mock patient");
   }
 
   @Test
   void searchPatients_ValidPhoneNumber_ReturnsPatient() {
-    // mock isUuid() and findById()
+    PatientSummary summary = summary(patient);
+
+    // mock isUuid() and findByPhoneNumber()
     when(queryValidator.isUuid(patient.getPhoneNumber())).thenReturn(false);
     when(queryValidator.isPhoneNumber(patient.getPhoneNumber())).thenReturn(true);
     when(patientRepository.findByPhoneNumber(patient.getPhoneNumber())).thenReturn(
-        Optional.of(patient));
+        Optional.of(summary));
 
-    List<Patient> result = patientService.searchPatients(patient.getPhoneNumber());
+    List<PatientSummary> result = patientService.searchPatients(patient.getPhoneNumber());
 
     // assertions
     assertEquals(1, result.size(), "Result should contain one patient for a valid UUID");
-    assertEquals(patient, result.get(0), "The returned patient should match the mock patient");
+    assertEquals(summary, result.get(0), "The returned patient should match the mock patient");
   }
 
   @Test
@@ -378,28 +486,30 @@ public class PatientServiceTests {
     // create patient1 and patient2
     String query = "John";
 
-    Patient patient1 = new Patient();
-    patient1.setFirstName(query);
-
-    Patient patient2 = new Patient();
-    patient2.setFirstName(query);
-
-    List<Patient> mockPatients = new ArrayList<>(List.of(patient1, patient2));
+    PatientSummary patient1 =
+        new PatientSummary(UUID.randomUUID(), query, "Doe", "800-100-0001", null, 0L);
+    PatientSummary patient2 =
+        new PatientSummary(UUID.randomUUID(), query, "Roe", "800-100-0002", null, 0L);
+    PatientSummary patient3 =
+        new PatientSummary(UUID.randomUUID(), "Elton", query, "800-100-0003", null, 0L);
 
     // mock validations
     when(queryValidator.isUuid(query)).thenReturn(false);
     when(queryValidator.isPhoneNumber(query)).thenReturn(false);
 
     when(queryValidator.isName(query)).thenReturn(true);
-    when(patientRepository.findByFirstNameIgnoreCase(query)).thenReturn(mockPatients);
-    when(patientRepository.findByLastNameIgnoreCase(query)).thenReturn(List.of());
+    when(patientRepository.findByFirstNameIgnoreCase(query))
+        .thenReturn(List.of(patient1, patient2));
+    when(patientRepository.findByLastNameIgnoreCase(query)).thenReturn(List.of(patient3));
 
-    List<Patient> result = patientService.searchPatients(query);
+    List<PatientSummary> result = patientService.searchPatients(query);
 
-    assertEquals(2, result.size(),
-        String.format("Result should contain all patients with the first name '%s'", query));
+    assertEquals(3, result.size(),
+        String.format("Result should contain all patients with the first or last name '%s'",
+            query));
     assertTrue(result.contains(patient1), "Result should contain patient1");
     assertTrue(result.contains(patient2), "Result should contain patient2");
+    assertTrue(result.contains(patient3), "Result should contain patient3");
   }
 
   @Test
@@ -409,13 +519,12 @@ public class PatientServiceTests {
     final String[] names = query.split(QueryValidator.FULL_NAME_REGEX, 2);
 
     // create patient1 and patient2
-    Patient patient1 = new Patient();
-    patient1.setFirstName(query);
+    PatientSummary patient1 =
+        new PatientSummary(UUID.randomUUID(), names[0], names[1], "800-100-0001", null, 0L);
+    PatientSummary patient2 =
+        new PatientSummary(UUID.randomUUID(), names[0], names[1], "800-100-0002", null, 0L);
 
-    Patient patient2 = new Patient();
-    patient2.setFirstName(query);
-
-    List<Patient> mockPatients = new ArrayList<>(List.of(patient1, patient2));
+    List<PatientSummary> mockPatients = new ArrayList<>(List.of(patient1, patient2));
 
     // mock validations
     when(queryValidator.isUuid(query)).thenReturn(false);
@@ -425,7 +534,7 @@ public class PatientServiceTests {
     when(queryValidator.isFullName(query)).thenReturn(true);
     when(patientRepository.findByFullNameIgnoreCase(names[0], names[1])).thenReturn(mockPatients);
 
-    List<Patient> result = patientService.searchPatients(query);
+    List<PatientSummary> result = patientService.searchPatients(query);
 
     assertEquals(2, result.size(),
         String.format("Result should contain all patients with the full name '%s'", query));
@@ -433,5 +542,57 @@ public class PatientServiceTests {
     assertTrue(result.contains(patient2), "Result should contain patient2");
   }
 
+  @Test
+  void getAllPatients_ReturnsSummaries() {
+    List<PatientSummary> summaries = List.of(summary(patient));
+    when(patientRepository.findAllSummaries()).thenReturn(summaries);
 
+    assertEquals(summaries, patientService.getAllPatients());
+  }
+
+  @Test
+  void getAllPatients_SparseFields_SelectsOnlyThose() {
+    final Set<PatientField> fields = EnumSet.of(PatientField.ID, PatientField.LAST_NAME);
+    List<PatientSummary> summaries = List.of(
+        new PatientSummary(patient.getId(), null, patient.getLastName(), null, null, 0L));
+    when(patientRepository.findSummaries(fields, "", Map.of())).thenReturn(summaries);
+
+    assertEquals(summaries, patientService.getAllPatients(fields));
+    verify(patientRepository, never()).findAllSummaries();
+  }
+
+  @Test
+  void searchPatients_SparseFields_SameCondition() {
+    final Set<PatientField> fields = EnumSet.of(PatientField.FIRST_NAME);
+    when(queryValidator.isUuid(patient.getPhoneNumber())).thenReturn(false);
+    when(queryValidator.isPhoneNumber(patient.getPhoneNumber())).thenReturn(true);
+
+    patientService.searchPatients(patient.getPhoneNumber(), fields);
+
+    verify(patientRepository).findSummaries(fields, PatientRepository.BY_PHONE_NUMBER,
+        Map.of("phoneNumber", patient.getPhoneNumber()));
+    verify(patientRepository, never()).findByPhoneNumber(any());
+  }
+
+  private static PatientSummary summary(Patient patient) {
+    return new PatientSummary(patient.getId(), patient.getFirstName(), patient.getLastName(),
+        patient.getPhoneNumber(), patient.getPharmaId(), 0L);
+  }
+
+  private static Prescription prescription(String id, String medicationId, String medicationName,
+      int dosage, int numOfDoses, String startDate, String endDate, boolean isActive) {
+    final Medication medication = new Medication();
+    medication.setId(UUID.fromString(medicationId));
+    medication.setMedicationName(medicationName);
+
+    final Prescription prescription = new Prescription();
+    prescription.setId(UUID.fromString(id));
+    prescription.setMedication(medication);
+    prescription.setDosage(dosage);
+    prescription.setNumOfDoses(numOfDoses);
+    prescription.setStartDate(startDate);
+    prescription.setEndDate(endDate);
+    prescription.setIsActive(isActive);
+    return prescription;
+  }
 }
@@ -0,0 +1,152 @@
+package com.bytecoders.emergencyaid.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bytecoders.emergencyaid.openapi.model.RefreshTokenResponse;
+import com.bytecoders.emergencyaid.repository.RefreshTokenRepository;
+import com.bytecoders.emergencyaid.repository.model.RefreshToken;
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Tests for {@link RefreshTokenService}. */
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTests {
+
+  private static final UUID USER_ID = UUID.fromString("9101d183-26e6-45b7-a8c4-25f24fdb36fa");
+
+  private static final String HMAC_KEY = "dGVzdC1lbWVyZ2VuY3lhaWQtcmVmcmVzaC10b2tlbi1obWFj";
+
+  private static final String JWT_SECRET_KEY = "dGVzdC1lbWVyZ2VuY3lhaWQtaHMyNTYtc2VjcmV0LWtleQ==";
+
+  @Mock
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @Mock
+  private JwtUtils jwtUtils;
+
+  @InjectMocks
+  private RefreshTokenService refreshTokenService;
+
+  @Captor
+  private ArgumentCaptor<RefreshToken> tokenCaptor;
+
+  @BeforeEach
+  void setup() {
+    ReflectionTestUtils.setField(refreshTokenService, "hmacKey", HMAC_KEY);
+    ReflectionTestUtils.setField(refreshTokenService, "jwtSecretKey", JWT_SECRET_KEY);
+    ReflectionTestUtils.setField(refreshTokenService, "expirationMs", 60_000L);
+    refreshTokenService.init();
+  }
+
+  private RefreshToken issueAndCapture(String refreshToken) {
+    verify(refreshTokenRepository, atLeastOnce()).save(tokenCaptor.capture());
+    return tokenCaptor.getAllValues().stream()
+        .filter(token -> token.getTokenHash().equals(refreshTokenService.hash(refreshToken)))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  @Test
+  void issue_StoresOnlyTheHash() {
+    final String refreshToken = refreshTokenService.issue(USER_ID);
+
+    final RefreshToken stored = issueAndCapture(refreshToken);
+    assertEquals(43, refreshToken.length());
+    assertNotEquals(refreshToken, stored.getTokenHash());
+    assertEquals(USER_ID, stored.getUserId());
+    assertTrue(stored.getExpiresAt().isAfter(Instant.now()));
+  }
+
+  @Test
+  void refresh_RotatesWithinTheFamily() {
+    final String refreshToken = refreshTokenService.issue(USER_ID);
+    final RefreshToken stored = issueAndCapture(refreshToken);
+    when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+    when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any(Instant.class)))
+        .thenReturn(1);
+    when(jwtUtils.generateToken(USER_ID.toString())).thenReturn("jwt");
+
+    final RefreshTokenResponse response = refreshTokenService.refresh(refreshToken).orElseThrow();
+
+    assertEquals(USER_ID, response.getId());
+    assertEquals("jwt", response.getToken());
+    assertNotEquals(refreshToken, response.getRefreshToken());
+    final RefreshToken rotated = issueAndCapture(response.getRefreshToken());
+    assertEquals(stored.getFamilyId(), rotated.getFamilyId());
+  }
+
+  @Test
+  void refresh_ReusedTokenRevokesFamily() {
+    final String refreshToken = refreshTokenService.issue(USER_ID);
+    final RefreshToken stored = issueAndCapture(refreshToken);
+    when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+    when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any(Instant.class)))
+        .thenReturn(0);
+
+    assertTrue(refreshTokenService.refresh(refreshToken).isEmpty());
+    verify(refreshTokenRepository).deleteFamily(stored.getFamilyId());
+    verify(jwtUtils, never()).generateToken(any());
+  }
+
+  @Test
+  void refresh_ExpiredToken() {
+    final String refreshToken = refreshTokenService.issue(USER_ID);
+    final RefreshToken stored = issueAndCapture(refreshToken);
+    stored.setExpiresAt(Instant.now().minusSeconds(1));
+    when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+    assertTrue(refreshTokenService.refresh(refreshToken).isEmpty());
+    verify(refreshTokenRepository, never()).markUsed(any(), any());
+  }
+
+  @Test
+  void refresh_UnknownOrMalformedToken() {
+    assertTrue(refreshTokenService.refresh(null).isEmpty());
+    assertTrue(refreshTokenService.refresh("too-short").isEmpty());
+    assertTrue(refreshTokenService.refresh("a".repeat(43)).isEmpty());
+  }
+
+  @Test
+  void revoke_DeletesTheFamily() {
+    final String refreshToken = refreshTokenService.issue(USER_ID);
+    final RefreshToken stored = issueAndCapture(refreshToken);
+    when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+    assertTrue(refreshTokenService.revoke(refreshToken));
+    verify(refreshTokenRepository).deleteFamily(stored.getFamilyId());
+  }
+
+  @Test
+  void init_SharedJwtKey_Throws() {
+    ReflectionTestUtils.setField(refreshTokenService, "hmacKey", JWT_SECRET_KEY);
+
+    assertThrows(IllegalStateException.class, () -> refreshTokenService.init());
+  }
+
+  @Test
+  void init_BlankKey_Throws() {
+    ReflectionTestUtils.setField(refreshTokenService, "hmacKey", " ");
+
+    assertThrows(IllegalStateException.class, () -> refreshTokenService.init());
+  }
+}
@@ -0,0 +1,123 @@
+package com.bytecoders.emergencyaid.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bytecoders.emergencyaid.repository.RevokedTokenRepository;
+import com.bytecoders.emergencyaid.repository.model.RevokedToken;
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Tests for {@link TokenRevocationService}. */
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTests {
+
+  private static final String REVOKED_ID = "0b6f3c1e-5a43-4d7e-9a38-6d2b8c4f1e27";
+
+  private static final String OTHER_ID = "9101d183-26e6-45b7-a8c4-25f24fdb36fa";
+
+  @Mock
+  private RevokedTokenRepository revokedTokenRepository;
+
+  @Mock
+  private JwtUtils jwtUtils;
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @InjectMocks
+  private TokenRevocationService tokenRevocationService;
+
+  @BeforeEach
+  void setup() {
+    ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveRate", 0.001);
+    ReflectionTestUtils.setField(tokenRevocationService, "minCapacity", 100L);
+    ReflectionTestUtils.setField(tokenRevocationService, "syncOverlapMs", 30_000L);
+    when(revokedTokenRepository.findUnexpiredIds(any())).thenReturn(List.of(REVOKED_ID));
+    tokenRevocationService.init();
+  }
+
+  @Test
+  void isRevoked_LoadedAtStartup() {
+    when(revokedTokenRepository.existsById(REVOKED_ID)).thenReturn(true);
+
+    assertTrue(tokenRevocationService.isRevoked(REVOKED_ID));
+  }
+
+  @Test
+  void isRevoked_FilterMissSkipsDatabase() {
+    assertFalse(tokenRevocationService.isRevoked(OTHER_ID));
+    assertFalse(tokenRevocationService.isRevoked(null));
+
+    verify(revokedTokenRepository, never()).existsById(any());
+  }
+
+  @Test
+  void isRevoked_FalsePositiveCheckedInDatabase() {
+    when(revokedTokenRepository.existsById(REVOKED_ID)).thenReturn(false);
+
+    assertFalse(tokenRevocationService.isRevoked(REVOKED_ID));
+    assertEquals(1, meterRegistry.get("emergencyaid.revocation.lookups")
+        .tag("result", "false_positive").counter().count());
+  }
+
+  @Test
+  void revoke_StoresAndAppliesImmediately() {
+    when(jwtUtils.extractTokenId("jwt")).thenReturn(OTHER_ID);
+    when(jwtUtils.extractExpiration("jwt")).thenReturn(new Date(System.currentTimeMillis()));
+    when(revokedTokenRepository.existsById(OTHER_ID)).thenReturn(true);
+
+    assertTrue(tokenRevocationService.revoke("jwt"));
+
+    final ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+    verify(revokedTokenRepository).saveAndFlush(captor.capture());
+    assertEquals(OTHER_ID, captor.getValue().getJti());
+    assertTrue(tokenRevocationService.isRevoked(OTHER_ID));
+  }
+
+  @Test
+  void revoke_AlreadyRevoked() {
+    when(jwtUtils.extractTokenId("jwt")).thenReturn(REVOKED_ID);
+    when(jwtUtils.extractExpiration("jwt")).thenReturn(new Date(System.currentTimeMillis()));
+    when(revokedTokenRepository.saveAndFlush(any())).thenThrow(
+        DataIntegrityViolationException.class);
+
+    assertTrue(tokenRevocationService.revoke("jwt"));
+  }
+
+  @Test
+  void revoke_TokenWithoutId() {
+    when(jwtUtils.extractTokenId("jwt")).thenReturn(null);
+
+    assertFalse(tokenRevocationService.revoke("jwt"));
+    verify(revokedTokenRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  void sync_AddsRevocationsFromOtherInstances() {
+    when(revokedTokenRepository.findIdsRevokedAfter(any())).thenReturn(List.of(OTHER_ID));
+    when(revokedTokenRepository.existsById(OTHER_ID)).thenReturn(true);
+
+    tokenRevocationService.sync();
+
+    assertTrue(tokenRevocationService.isRevoked(OTHER_ID));
+  }
+}
@@ -36,6 +36,9 @@ public class UserServiceTests {
   @Mock
   private PasswordUtils passwordUtils;
 
+  @Mock
+  private RefreshTokenService refreshTokenService;
+
   @InjectMocks
   private UserService userService = new UserService();
 
@@ -78,10 +81,12 @@ public class UserServiceTests {
     mockLoginResponse.setId(mockUser.getId());
     mockLoginResponse.setEmail(mockUser.getEmail());
     mockLoginResponse.setToken("mockJwtToken");
+    mockLoginResponse.setRefreshToken("mockRefreshToken");
 
     when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(mockUser));
     when(passwordUtils.verifyPassword("password", "hashedPassword")).thenReturn(true);
     when(jwtUtils.generateToken(mockUser.getId().toString())).thenReturn("mockJwtToken");
+    when(refreshTokenService.issue(MOCK_UUID)).thenReturn("mockRefreshToken");
 
     final Optional<LoginUserResponse> loginResponseOptional = userService.loginUser(request);
     assertEquals(loginResponseOptional, Optional.of(mockLoginResponse));
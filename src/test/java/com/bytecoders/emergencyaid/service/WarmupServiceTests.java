@@ -0,0 +1,146 @@
+package com.bytecoders.emergencyaid.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bytecoders.emergencyaid.repository.PatientRepository;
+import com.bytecoders.emergencyaid.util.JwtUtils;
+import com.bytecoders.emergencyaid.util.PasswordUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+/** Tests for {@link WarmupService}. */
+@ExtendWith(MockitoExtension.class)
+public class WarmupServiceTests {
+
+  @Mock
+  private DataSource dataSource;
+
+  @Mock
+  private Connection connection;
+
+  @Mock
+  private PatientRepository patientRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private JwtUtils jwtUtils;
+
+  @Spy
+  private PasswordUtils passwordUtils = new PasswordUtils(new SimpleMeterRegistry(), 4);
+
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper();
+
+  @Spy
+  private PrescriptionJson prescriptionJson = new PrescriptionJson(new ObjectMapper());
+
+  @Mock
+  private RestTemplate restTemplate;
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @InjectMocks
+  private WarmupService warmupService;
+
+  @BeforeEach
+  void setup() {
+    ReflectionTestUtils.setField(warmupService, "pharmaidBaseUrl", "https://pharmaid.test");
+    ReflectionTestUtils.setField(warmupService, "connections", 3);
+    ReflectionTestUtils.setField(warmupService, "iterations", 10);
+    ReflectionTestUtils.setField(warmupService, "allowedSources",
+        new String[]{"0.1.0.0/24", "127.0.0.1", "::1"});
+  }
+
+  @Test
+  void warmup_AllStepsSucceed() throws Exception {
+    stubConnectionAndToken();
+    when(jwtUtils.isTokenValid(eq("token"), anyString())).thenReturn(true);
+
+    WarmupService.Report report = warmupService.warmup();
+
+    assertTrue(report.successful());
+    assertEquals(6, report.steps().size());
+    report.steps().forEach(step -> assertNull(step.error(), step.name()));
+    // the pool is asked for all connections before any is returned
+    verify(dataSource, times(3)).getConnection();
+    verify(connection, times(3)).close();
+    verify(patientRepository).findByFullNameIgnoreCase("warmup", "warmup");
+    assertNotNull(meterRegistry.find("emergencyaid.warmup.step").tag("step", "json").timer());
+  }
+
+  @Test
+  void warmup_FailedStepDoesNotStopTheOthers() throws Exception {
+    stubConnectionAndToken();
+    when(jwtUtils.isTokenValid(eq("token"), anyString())).thenReturn(false);
+
+    WarmupService.Report report = warmupService.warmup();
+
+    assertFalse(report.successful());
+    Map<String, String> errors = report.steps().stream()
+        .filter(step -> step.error() != null)
+        .collect(Collectors.toMap(WarmupService.Step::name, WarmupService.Step::error));
+    assertEquals(1, errors.size());
+    // only the exception type is reported; the message stays in the log
+    assertEquals("IllegalStateException", errors.get("jwt"));
+    assertEquals(6, report.steps().size());
+  }
+
+  @Test
+  void warmup_RunsOnce() throws Exception {
+    stubConnectionAndToken();
+    when(jwtUtils.isTokenValid(eq("token"), anyString())).thenReturn(true);
+
+    WarmupService.Report first = warmupService.warmup();
+    WarmupService.Report second = warmupService.warmup();
+
+    assertSame(first, second);
+    verify(dataSource, times(3)).getConnection();
+  }
+
+  @Test
+  void isAllowedSource_AppEngineAndLoopback() {
+    assertTrue(warmupService.isAllowedSource("0.1.0.3"));
+    assertTrue(warmupService.isAllowedSource("127.0.0.1"));
+    assertTrue(warmupService.isAllowedSource("::1"));
+  }
+
+  @Test
+  void isAllowedSource_OtherClientsRejected() {
+    assertFalse(warmupService.isAllowedSource("203.0.113.7"));
+    assertFalse(warmupService.isAllowedSource("2001:db8::1"));
+  }
+
+  private void stubConnectionAndToken() throws SQLException {
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(jwtUtils.generateToken(anyString())).thenReturn("token");
+  }
+}
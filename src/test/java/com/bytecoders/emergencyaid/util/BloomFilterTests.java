@@ -0,0 +1,57 @@
+package com.bytecoders.emergencyaid.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link BloomFilter}. */
+public class BloomFilterTests {
+
+  @Test
+  void mightContain_EveryAddedValue() {
+    final BloomFilter filter = BloomFilter.create(1_000, 0.01);
+    final List<String> values = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      values.add(UUID.randomUUID().toString());
+    }
+
+    values.forEach(filter::put);
+
+    values.forEach(value -> assertTrue(filter.mightContain(value)));
+  }
+
+  @Test
+  void mightContain_FalsePositiveRateNearTarget() {
+    final BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put(UUID.randomUUID().toString());
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain(UUID.randomUUID().toString())) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 2_000, "False positive rate should be about 1%");
+  }
+
+  @Test
+  void mightContain_EmptyFilter() {
+    final BloomFilter filter = BloomFilter.create(100, 0.001);
+
+    assertFalse(filter.mightContain("9101d183-26e6-45b7-a8c4-25f24fdb36fa"));
+    assertFalse(filter.mightContain(""));
+  }
+
+  @Test
+  void create_RejectsInvalidRate() {
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 0));
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1));
+  }
+}
@@ -0,0 +1,40 @@
+package com.bytecoders.emergencyaid.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link Etags}. */
+public class EtagsTests {
+
+  private static final UUID MOCK_UUID = UUID.fromString("9101d183-26e6-45b7-a8c4-25f24fdb36fa");
+
+  @Test
+  void ofPatients_SameIdsAndVersions_SameEtag() {
+    assertEquals(Etags.ofPatients(List.of(patient("Bob", 0L))),
+        Etags.ofPatients(List.of(patient("Bob", 0L))));
+  }
+
+  @Test
+  void ofPatients_VersionChanged_DifferentEtag() {
+    assertNotEquals(Etags.ofPatients(List.of(patient("Bob", 0L))),
+        Etags.ofPatients(List.of(patient("Bobby", 1L))));
+  }
+
+  @Test
+  void ofContent_IsQuotedStrongEtag() {
+    final String etag = Etags.ofContent("[]".getBytes(StandardCharsets.UTF_8));
+
+    assertTrue(etag.matches("\"[0-9a-f]{32}\""), "ETag should be a quoted hash: " + etag);
+  }
+
+  private static PatientSummary patient(String firstName, long version) {
+    return new PatientSummary(MOCK_UUID, firstName, "Ross", "800-100-1000", null, version);
+  }
+}
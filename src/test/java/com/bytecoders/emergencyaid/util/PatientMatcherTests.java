@@ -0,0 +1,93 @@
+package com.bytecoders.emergencyaid.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytecoders.emergencyaid.repository.model.PatientSummary;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link PatientMatcher}. */
+public class PatientMatcherTests {
+
+  private final PatientMatcher patientMatcher = new PatientMatcher();
+
+  @Test
+  void normalizeName_StripsAccentsCaseAndPunctuation() {
+    assertEquals("obrien", patientMatcher.normalizeName("  O'Brién "));
+    assertEquals("", patientMatcher.normalizeName(null));
+  }
+
+  @Test
+  void normalizePhone_KeepsDigits() {
+    assertEquals("8001009999", patientMatcher.normalizePhone("800-100-9999"));
+  }
+
+  @Test
+  void soundex_MatchesReferenceCodes() {
+    assertEquals("r163", PatientMatcher.soundex("robert"));
+    assertEquals("r163", PatientMatcher.soundex("rupert"));
+    assertEquals("a261", PatientMatcher.soundex("ashcraft"));
+    assertEquals("t522", PatientMatcher.soundex("tymczak"));
+    assertEquals("l000", PatientMatcher.soundex("lee"));
+  }
+
+  @Test
+  void jaroWinkler_KnownValues() {
+    assertEquals(1.0, PatientMatcher.jaroWinkler("martha", "martha"));
+    assertEquals(0.961, PatientMatcher.jaroWinkler("martha", "marhta"), 0.001);
+    assertEquals(0.840, PatientMatcher.jaroWinkler("dwayne", "duane"), 0.001);
+    assertEquals(0.0, PatientMatcher.jaroWinkler("abc", ""));
+  }
+
+  @Test
+  void blockingKeys_NameVariantsShareKey() {
+    final Set<String> smith = patientMatcher.blockingKeys(patient("John", "Smith", "800-100-1000"));
+    final Set<String> smyth = patientMatcher.blockingKeys(patient("Jon", "Smyth", "212-555-0199"));
+
+    assertFalse(Collections.disjoint(smith, smyth), "Spelling variants should share a block");
+  }
+
+  @Test
+  void blockingKeys_SwappedNamesShareKey() {
+    final Set<String> direct =
+        patientMatcher.blockingKeys(patient("John", "Smith", "800-100-1000"));
+    final Set<String> swapped =
+        patientMatcher.blockingKeys(patient("Smith", "John", "212-555-0199"));
+
+    assertFalse(Collections.disjoint(direct, swapped), "Swapped names should share a block");
+  }
+
+  @Test
+  void score_NameVariantWithDifferentPhone_AboveDefaultThreshold() {
+    final double score = patientMatcher.score(
+        patient("John", "Smith", "800-100-1000"), patient("Jon", "Smith", "800-100-2000"));
+
+    assertTrue(score >= 0.85, "Score was " + score);
+  }
+
+  @Test
+  void score_DifferentPeople_BelowDefaultThreshold() {
+    final double score = patientMatcher.score(
+        patient("John", "Smith", "800-100-1000"), patient("Jane", "Smith", "212-555-0199"));
+
+    assertTrue(score < 0.85, "Score was " + score);
+  }
+
+  @Test
+  void score_SamePharmaId_IsCertain() {
+    final PatientSummary a = new PatientSummary(UUID.randomUUID(), "Ann", "Lee", "800-100-1000",
+        "pharma-1", 0L);
+    final PatientSummary b = new PatientSummary(UUID.randomUUID(), "Bob", "Ross", "212-555-0199",
+        "pharma-1", 0L);
+
+    assertEquals(1.0, patientMatcher.score(a, b));
+  }
+
+  private static PatientSummary patient(String firstName, String lastName, String phoneNumber) {
+    return new PatientSummary(UUID.randomUUID(), firstName, lastName, phoneNumber, null, 0L);
+  }
+}
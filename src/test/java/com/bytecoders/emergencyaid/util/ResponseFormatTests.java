@@ -0,0 +1,43 @@
+package com.bytecoders.emergencyaid.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link ResponseFormat}. */
+public class ResponseFormatTests {
+
+  @Test
+  void negotiate_MissingOrWildcard_Json() {
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(null));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("*/*"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/*"));
+  }
+
+  @Test
+  void negotiate_BinaryTypes() {
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor"));
+    assertEquals(ResponseFormat.SMILE, ResponseFormat.negotiate("application/x-jackson-smile"));
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor, */*;q=0.5"));
+  }
+
+  @Test
+  void negotiate_PrefersHigherQuality() {
+    assertEquals(ResponseFormat.JSON,
+        ResponseFormat.negotiate("application/cbor;q=0.5, application/json"));
+  }
+
+  @Test
+  void negotiate_InvalidHeader_Json() {
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("not a media type"));
+  }
+
+  @Test
+  void etagFor_DiffersPerEncoding() {
+    final String etag = "\"0123456789abcdef\"";
+
+    assertEquals(etag, ResponseFormat.JSON.etagFor(etag));
+    assertEquals("\"0123456789abcdef-cbor\"", ResponseFormat.CBOR.etagFor(etag));
+    assertEquals("\"0123456789abcdef-smile\"", ResponseFormat.SMILE.etagFor(etag));
+  }
+}
@@ -0,0 +1,53 @@
+package com.bytecoders.emergencyaid.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link UuidV7}. */
+public class UuidV7Tests {
+
+  @Test
+  void generate_SetsVersionAndVariant() {
+    final UUID uuid = UuidV7.generate();
+
+    assertEquals(7, uuid.version());
+    assertEquals(2, uuid.variant());
+  }
+
+  @Test
+  void generate_EmbedsCurrentTimestamp() {
+    final long before = System.currentTimeMillis();
+    final UUID uuid = UuidV7.generate();
+    final long after = System.currentTimeMillis();
+
+    // bursts of over 4096 IDs per millisecond may push the timestamp a few ms ahead
+    final long timestamp = UuidV7.timestampMillis(uuid);
+    assertTrue(timestamp >= before && timestamp <= after + 10,
+        "Timestamp should be the generation time");
+  }
+
+  @Test
+  void generate_IsStrictlyIncreasing() {
+    final List<UUID> uuids = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      uuids.add(UuidV7.generate());
+    }
+
+    for (int i = 1; i < uuids.size(); i++) {
+      // compare as unsigned, which is how Postgres orders UUID columns
+      assertTrue(uuids.get(i - 1).toString().compareTo(uuids.get(i).toString()) < 0,
+          "UUIDs should sort in generation order");
+    }
+  }
+
+  @Test
+  void timestampMillis_NotVersion7_Throws() {
+    assertThrows(IllegalArgumentException.class, () -> UuidV7.timestampMillis(UUID.randomUUID()));
+  }
+}
@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# Startup benchmark: time to first request and resident memory of EmergencyAid in an F2-sized
+# container (1 CPU, 512 MB), for the plain jar, the jar with an AppCDS archive, the AOT-processed
+# jar with an AppCDS archive, and optionally a GraalVM native image.
+#   startup/benchmark.sh
+#   NATIVE=true RUNS=5 startup/benchmark.sh
+# Runs on the offline load test configuration against the PharmaId stub; requires Docker.
+# Time to first request is measured from `docker run` to the first successful GET /hello.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${RUNS:-3}"
+NATIVE="${NATIVE:-false}"
+CPUS="${CPUS:-1}"
+MEMORY="${MEMORY:-512m}"
+APP_URL="http://localhost:8080"
+JAR="target/emergencyaid-0.0.1-SNAPSHOT.jar"
+OUT="target/startup"
+RESULTS="$OUT/results.csv"
+# AOT fixes the bean definitions at build time, so they are generated for the loadtest config
+AOT_FLAGS=(-Daot.profiles=loadtest "-Daot.arguments=--spring.config.location=file:$PWD/loadtest/config/")
+
+mkdir -p "$OUT"
+
+cleanup() {
+  [[ -n "${CONTAINER:-}" ]] && docker rm -f "$CONTAINER" > /dev/null 2>&1 || true
+  [[ -n "${STUB_PID:-}" ]] && kill "$STUB_PID" 2>/dev/null || true
+}
+trap cleanup EXIT
+
+echo "Building images..."
+./mvnw -B -q package -DskipTests
+cp "$JAR" "$OUT/plain.jar"
+./mvnw -B -q -Pfast-startup package -DskipTests "${AOT_FLAGS[@]}"
+cp "$JAR" "$OUT/aot.jar"
+
+docker build -q -f startup/Dockerfile --build-arg JAR="$OUT/plain.jar" --build-arg CDS=false \
+  -t emergencyaid-startup:jar . > /dev/null
+docker build -q -f startup/Dockerfile --build-arg JAR="$OUT/plain.jar" --build-arg CDS=true \
+  -t emergencyaid-startup:cds . > /dev/null
+docker build -q -f startup/Dockerfile --build-arg JAR="$OUT/aot.jar" --build-arg CDS=true \
+  --build-arg AOT=true -t emergencyaid-startup:aot-cds . > /dev/null
+VARIANTS=(jar cds aot-cds)
+if [[ "$NATIVE" == "true" ]]; then
+  ./mvnw -B -q -Pnative,fast-startup spring-boot:build-image -DskipTests "${AOT_FLAGS[@]}" \
+    -Dspring-boot.build-image.imageName=emergencyaid-startup:native
+  VARIANTS+=(native)
+fi
+
+java loadtest/PharmaidStub.java port=8089 > /dev/null &
+STUB_PID=$!
+sleep 2
+
+echo "variant,run,time_to_first_request_ms,rss_mb" > "$RESULTS"
+for variant in "${VARIANTS[@]}"; do
+  for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    CONTAINER=$(docker run -d --network host --cpus "$CPUS" --memory "$MEMORY" \
+      -v "$PWD/loadtest/config:/config:ro" "emergencyaid-startup:$variant" \
+      --spring.config.location=file:/config/ --emergencyaid.loadtest.patients=0)
+    until curl -sf "$APP_URL/hello" > /dev/null; do
+      if [[ "$(docker inspect -f '{{.State.Running}}' "$CONTAINER")" != "true" ]]; then
+        docker logs "$CONTAINER" | tail -20
+        echo "$variant exited before serving a request" >&2
+        exit 1
+      fi
+      sleep 0.02
+    done
+    ttfr=$(( ($(date +%s%N) - start) / 1000000 ))
+    # resident set of the container's processes, in MB
+    rss=$(docker top "$CONTAINER" -o rss | awk 'NR > 1 { kb += $1 } END { print int(kb / 1024) }')
+    docker rm -f "$CONTAINER" > /dev/null
+    CONTAINER=""
+    echo "$variant,$run,$ttfr,$rss" | tee -a "$RESULTS"
+  done
+done
+
+echo "Results: $RESULTS"